@@ -1,4 +1,23 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
 architectury {
     val enabledPlatforms: String by rootProject
     common(enabledPlatforms.split(","))
-}
\ No newline at end of file
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+
+    // e.g. ./gradlew :common:jmh -Pjmh.includes=Sync -Pjmh.quests=500,5000
+    findProperty("jmh.includes")?.let { includes.add(it.toString()) }
+    listOf("quests", "tasks", "fanOut", "statPercent", "completedPercent").forEach { param ->
+        findProperty("jmh.$param")?.let { value ->
+            benchmarkParameters.put(param, objects.listProperty<String>().value(value.toString().split(",")))
+        }
+    }
+}
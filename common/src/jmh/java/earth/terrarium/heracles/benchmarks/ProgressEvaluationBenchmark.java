@@ -0,0 +1,112 @@
+package earth.terrarium.heracles.benchmarks;
+
+import com.mojang.datafixers.util.Pair;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.api.tasks.QuestTask;
+import earth.terrarium.heracles.api.tasks.QuestTaskType;
+import earth.terrarium.heracles.api.tasks.defaults.DummyTask;
+import earth.terrarium.heracles.api.tasks.defaults.StatTask;
+import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
+import earth.terrarium.heracles.common.handlers.progress.QuestsProgress;
+import earth.terrarium.heracles.common.handlers.progress.TaskProgress;
+import earth.terrarium.heracles.common.utils.ModUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long an event takes to progress the quests of a player and how long the completable quests take to update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProgressEvaluationBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int quests;
+
+    @Param({"3"})
+    public int tasks;
+
+    @Param({"2"})
+    public int fanOut;
+
+    @Param({"50"})
+    public int statPercent;
+
+    @Param({"50"})
+    public int completedPercent;
+
+    private QuestsProgress progress;
+    private List<String> unlocked;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Map<String, Quest> pack = SyntheticPack.create(quests, tasks, fanOut, statPercent);
+        SyntheticPack.install(pack);
+        progress = SyntheticPack.progress(pack, completedPercent);
+        progress.completableQuests().updateCompleteQuests(progress);
+        unlocked = new ArrayList<>(progress.completableQuests().getQuests(progress));
+    }
+
+    @Benchmark
+    public int statEvent() {
+        int value = next++;
+        return evaluate(StatTask.TYPE, new Pair<>(SyntheticPack.stat(value % SyntheticPack.STATS), value));
+    }
+
+    @Benchmark
+    public int dummyEvent() {
+        return evaluate(DummyTask.TYPE, SyntheticPack.dummy(next++ % SyntheticPack.DUMMIES));
+    }
+
+    @Benchmark
+    public int rebuildCompletable() {
+        progress.completableQuests().updateCompleteQuests(progress);
+        return progress.completableQuests().getQuests(progress).size();
+    }
+
+    /**
+     * Completes one of the unlocked quests and resets it again, updating the completable quests after each change.
+     */
+    @Benchmark
+    public int updateCompletable() {
+        if (unlocked.isEmpty()) return 0;
+        String id = unlocked.get(next++ % unlocked.size());
+        List<String> changed = List.of(id);
+        QuestProgress questProgress = progress.getProgress(id);
+        questProgress.setComplete(true);
+        progress.completableQuests().updateCompleteQuests(progress, changed, (quest, value) -> {});
+        int size = progress.completableQuests().getQuests(progress).size();
+        questProgress.setComplete(false);
+        progress.completableQuests().updateCompleteQuests(progress, changed, (quest, value) -> {});
+        return size;
+    }
+
+    /**
+     * The lookup and progress part of {@link QuestsProgress#testAndProgressTaskType}, the rest of it needs
+     * a player on a running server to send the changes to.
+     */
+    private <I, T extends QuestTask<I, ?, T>> int evaluate(QuestTaskType<T> type, I input) {
+        int edited = 0;
+        for (var entry : progress.completableQuests().getTasks(progress, type, input).entrySet()) {
+            QuestProgress questProgress = progress.getProgress(entry.getKey());
+            for (QuestTask<?, ?, ?> task : entry.getValue()) {
+                TaskProgress<?> taskProgress = questProgress.getTask(task);
+                if (taskProgress.isComplete()) continue;
+                Tag before = taskProgress.progress().copy();
+                taskProgress.addProgress(type, ModUtils.cast(task), input);
+                if (!task.storage().same(before, taskProgress.progress())) {
+                    edited++;
+                }
+            }
+        }
+        return edited;
+    }
+}
@@ -0,0 +1,92 @@
+package earth.terrarium.heracles.benchmarks;
+
+import com.mojang.datafixers.util.Pair;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.api.tasks.QuestTask;
+import earth.terrarium.heracles.api.tasks.defaults.StatTask;
+import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
+import earth.terrarium.heracles.common.handlers.progress.QuestsProgress;
+import earth.terrarium.heracles.common.handlers.progress.TaskProgress;
+import earth.terrarium.heracles.common.network.packets.quests.SyncQuestProgressPacket;
+import earth.terrarium.heracles.common.utils.ModUtils;
+import io.netty.buffer.Unpooled;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving and loading the progress of a player and encoding and decoding it for syncing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProgressSerializationBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int quests;
+
+    @Param({"3"})
+    public int tasks;
+
+    @Param({"50"})
+    public int statPercent;
+
+    private Map<String, Quest> pack;
+    private QuestsProgress progress;
+    private Map<String, CompoundTag> saved;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pack = SyntheticPack.create(quests, tasks, 0, statPercent);
+        SyntheticPack.install(pack);
+        progress = SyntheticPack.progress(pack, 50);
+        int value = 0;
+        for (var entry : pack.entrySet()) {
+            QuestProgress questProgress = progress.getProgress(entry.getKey());
+            for (QuestTask<?, ?, ?> task : entry.getValue().tasks().values()) {
+                if (task instanceof StatTask stat) {
+                    TaskProgress<?> taskProgress = questProgress.getTask(task);
+                    taskProgress.addProgress(StatTask.TYPE, ModUtils.cast(stat), new Pair<>(stat.stat(), value++));
+                }
+            }
+        }
+        saved = save();
+        FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        SyncQuestProgressPacket.TYPE.encode(new SyncQuestProgressPacket(saved, true), buffer);
+        encoded = new byte[buffer.readableBytes()];
+        buffer.readBytes(encoded);
+    }
+
+    @Benchmark
+    public Map<String, CompoundTag> save() {
+        Map<String, CompoundTag> tags = new LinkedHashMap<>();
+        progress.progress().forEach((id, questProgress) -> tags.put(id, questProgress.save()));
+        return tags;
+    }
+
+    @Benchmark
+    public Map<String, QuestProgress> load() {
+        Map<String, QuestProgress> loaded = new LinkedHashMap<>();
+        saved.forEach((id, tag) -> loaded.put(id, new QuestProgress(pack.get(id), tag)));
+        return loaded;
+    }
+
+    @Benchmark
+    public int encodeSync() {
+        FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        SyncQuestProgressPacket.TYPE.encode(new SyncQuestProgressPacket(saved, true), buffer);
+        int size = buffer.readableBytes();
+        buffer.release();
+        return size;
+    }
+
+    @Benchmark
+    public SyncQuestProgressPacket decodeSync() {
+        return SyncQuestProgressPacket.TYPE.decode(new FriendlyByteBuf(Unpooled.wrappedBuffer(encoded)));
+    }
+}
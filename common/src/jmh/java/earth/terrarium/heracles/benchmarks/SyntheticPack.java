@@ -0,0 +1,107 @@
+package earth.terrarium.heracles.benchmarks;
+
+import earth.terrarium.heracles.api.quests.GroupDisplay;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.api.quests.QuestDisplay;
+import earth.terrarium.heracles.api.quests.QuestSettings;
+import earth.terrarium.heracles.api.quests.defaults.ItemQuestIcon;
+import earth.terrarium.heracles.api.tasks.QuestTask;
+import earth.terrarium.heracles.api.tasks.defaults.DummyTask;
+import earth.terrarium.heracles.api.tasks.defaults.StatTask;
+import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
+import earth.terrarium.heracles.common.handlers.progress.QuestsProgress;
+import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
+import earth.terrarium.heracles.common.handlers.quests.QuestLoader;
+import net.minecraft.SharedConstants;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Builds quest packs of a configurable shape for the benchmarks.
+ * <p>
+ * Every quest depends on up to {@code fanOut} random quests before it, and each of its tasks is either a
+ * {@link StatTask} or a {@link DummyTask}, {@code statPercent} deciding the mix. Stat tasks have a target
+ * that is never reached so repeated events keep doing the same work.
+ */
+public final class SyntheticPack {
+
+    public static final int STATS = 64;
+    public static final int DUMMIES = 64;
+
+    static {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    public static Map<String, Quest> create(int quests, int tasks, int fanOut, int statPercent) {
+        Random random = new Random(quests * 31L + tasks);
+        Map<String, Quest> pack = new LinkedHashMap<>();
+        for (int i = 0; i < quests; i++) {
+            Set<String> dependencies = new HashSet<>();
+            for (int j = 0; j < Math.min(fanOut, i); j++) {
+                dependencies.add(id(random.nextInt(i)));
+            }
+            Map<String, QuestTask<?, ?, ?>> questTasks = new HashMap<>();
+            for (int j = 0; j < tasks; j++) {
+                String task = "task_" + j;
+                if (random.nextInt(100) < statPercent) {
+                    questTasks.put(task, new StatTask(task, "", ItemQuestIcon.AIR, stat(random.nextInt(STATS)), Integer.MAX_VALUE));
+                } else {
+                    questTasks.put(task, new DummyTask(task, "", ItemQuestIcon.AIR, dummy(random.nextInt(DUMMIES)), ""));
+                }
+            }
+            pack.put(id(i), new Quest(
+                QuestDisplay.createDefault(GroupDisplay.createDefault()),
+                QuestSettings.createDefault(),
+                dependencies,
+                questTasks,
+                new HashMap<>()
+            ));
+        }
+        return pack;
+    }
+
+    /**
+     * Replaces the current quests with the given pack.
+     */
+    public static void install(Map<String, Quest> pack) {
+        try {
+            QuestHandler.apply(Files.createTempDirectory("heracles-jmh"), new QuestLoader.Result(pack, Map.of(), false));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates progress for every quest of the pack, the first {@code completedPercent} of the quests are complete.
+     */
+    public static QuestsProgress progress(Map<String, Quest> pack, int completedPercent) {
+        Map<String, QuestProgress> progress = new HashMap<>();
+        int completed = pack.size() * completedPercent / 100;
+        int i = 0;
+        for (var entry : pack.entrySet()) {
+            QuestProgress questProgress = new QuestProgress();
+            questProgress.update(entry.getValue());
+            questProgress.setComplete(i++ < completed);
+            progress.put(entry.getKey(), questProgress);
+        }
+        return new QuestsProgress(progress);
+    }
+
+    public static String id(int quest) {
+        return "quest_" + quest;
+    }
+
+    public static ResourceLocation stat(int stat) {
+        return new ResourceLocation("heracles_jmh", "stat_" + stat);
+    }
+
+    public static String dummy(int dummy) {
+        return "dummy_" + dummy;
+    }
+}
@@ -3,6 +3,8 @@ package earth.terrarium.heracles;
 import com.mojang.logging.LogUtils;
 import earth.terrarium.heracles.api.events.HeraclesEvents;
 import earth.terrarium.heracles.api.events.QuestEventTarget;
+import earth.terrarium.heracles.common.handlers.ServerConfig;
+import earth.terrarium.heracles.common.handlers.metrics.PerformanceMetrics;
 import earth.terrarium.heracles.common.network.NetworkHandler;
 import earth.terrarium.heracles.common.regisitries.ModBlocks;
 import earth.terrarium.heracles.common.regisitries.ModItems;
@@ -22,10 +24,14 @@ public class Heracles {
     public static final PlatformLogger LOGGER = PlatformLogger.of(LogUtils.getLogger());
 
     private static Path configPath;
+    private static String version = "";
     private static Supplier<RegistryAccess> registryAccessSupplier;
 
     public static void init(PlatformSettings settings) {
         settings.apply(Heracles.LOGGER);
+        Heracles.version = settings.version();
+        ServerConfig.load(configPath.resolve(MOD_ID));
+        PerformanceMetrics.setEnabled(ServerConfig.metrics);
         ModBlocks.BLOCKS.init();
         ModBlocks.BLOCK_ENTITIES.init();
         ModItems.ITEMS.init();
@@ -50,6 +56,10 @@ public class Heracles {
         return Heracles.configPath;
     }
 
+    public static String getVersion() {
+        return Heracles.version;
+    }
+
     private static void playQuestCompleteSound(QuestEventTarget event) {
         ServerPlayer player = event.player();
         player.level().playSound(null, player.blockPosition(), SoundEvents.UI_TOAST_CHALLENGE_COMPLETE, SoundSource.MASTER, 0.1f, 2f);
@@ -11,13 +11,21 @@ import net.minecraft.resources.ResourceLocation;
 import java.util.List;
 import java.util.Locale;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * @param loader Loads the suggestions if they need to be fetched, and runs the callback once they are available.
+ */
 public record AutocompleteTextSetting<T>(
-    Supplier<List<T>> suggestions, BiPredicate<String, T> filter, Function<T, String> mapper
+    Supplier<List<T>> suggestions, BiPredicate<String, T> filter, Function<T, String> mapper, Consumer<Runnable> loader
 ) implements Setting<T, AutocompleteEditBox<T>> {
 
+    public AutocompleteTextSetting(Supplier<List<T>> suggestions, BiPredicate<String, T> filter, Function<T, String> mapper) {
+        this(suggestions, filter, mapper, Runnable::run);
+    }
+
     public static final AutocompleteTextSetting<ResourceLocation> ALL_RECIPES = new AutocompleteTextSetting<>(
         () -> {
             var connection = Minecraft.getInstance().getConnection();
@@ -33,19 +41,22 @@ public record AutocompleteTextSetting<T>(
     public static final AutocompleteTextSetting<ResourceLocation> ALL_ADVANCEMENT = new AutocompleteTextSetting<>(
         () -> ClientAdvancementDisplays.getAdvancements().stream().toList(),
         (text, item) -> item.toString().toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT)) && !item.toString().equalsIgnoreCase(text),
-        r -> Optionull.mapOrDefault(r, ResourceLocation::toString, "")
+        r -> Optionull.mapOrDefault(r, ResourceLocation::toString, ""),
+        ClientAdvancementDisplays::requestCatalogue
     );
 
     public static final AutocompleteTextSetting<ResourceLocation> ALL_LOOT_TABLES = new AutocompleteTextSetting<>(
         () -> ClientlootTableDisplays.getLootTables().stream().toList(),
         (text, item) -> item.toString().toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT)) && !item.toString().equalsIgnoreCase(text),
-        r -> Optionull.mapOrDefault(r, ResourceLocation::toString, "")
+        r -> Optionull.mapOrDefault(r, ResourceLocation::toString, ""),
+        ClientlootTableDisplays::requestCatalogue
     );
 
     @Override
     public AutocompleteEditBox<T> createWidget(int width, T value) {
         AutocompleteEditBox<T> box = new AutocompleteEditBox<>(Minecraft.getInstance().font, 0, 0, width, 11, filter, mapper, s -> {});
         box.setSuggestions(this.suggestions.get());
+        this.loader.accept(() -> box.setSuggestions(this.suggestions.get()));
         box.setValue(mapper.apply(value));
         box.setMaxLength(Short.MAX_VALUE);
         return box;
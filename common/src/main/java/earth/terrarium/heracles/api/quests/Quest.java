@@ -96,7 +96,7 @@ public record Quest(
             .distinct()
             .toList();
         if (!items.isEmpty()) {
-            NetworkHandler.CHANNEL.sendToPlayer(
+            NetworkHandler.sendToPlayer(
                 new QuestRewardClaimedPacket(questId, items),
                 player
             );
@@ -6,5 +6,34 @@ import java.util.Collection;
 
 public interface CacheableQuestTaskType<T extends QuestTask<?, ?, T>, C> extends QuestTaskType<T> {
 
+    /**
+     * Builds the cache from all quests, only done when the quests are loaded or the type starts being used.
+     */
     C cache(Collection<Quest> quests);
+
+    /**
+     * Adds a quest that was added or edited to the cache, edited quests are removed with
+     * {@link #remove(Object, Quest, Collection)} first. By default the cache is rebuilt.
+     *
+     * @param cache  The current cache.
+     * @param quest  The quest to add.
+     * @param quests All quests, including the added quest.
+     * @return The updated cache, can be the same instance.
+     */
+    default C add(C cache, Quest quest, Collection<Quest> quests) {
+        return cache(quests);
+    }
+
+    /**
+     * Removes a quest from the cache, the quest may have been edited since it was added.
+     * By default the cache is rebuilt.
+     *
+     * @param cache  The current cache.
+     * @param quest  The quest to remove, the same instance that was added.
+     * @param quests All quests.
+     * @return The updated cache, can be the same instance.
+     */
+    default C remove(C cache, Quest quest, Collection<Quest> quests) {
+        return cache(quests);
+    }
 }
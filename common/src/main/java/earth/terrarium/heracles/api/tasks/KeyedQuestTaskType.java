@@ -0,0 +1,47 @@
+package earth.terrarium.heracles.api.tasks;
+
+import earth.terrarium.heracles.api.quests.Quest;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+/**
+ * A task type whose tasks only react to inputs with specific keys, for example an item or a stat.
+ * Tasks of this type are cached in a {@link TaskKeyIndex} so an input only tests the tasks that share one of its keys.
+ */
+public interface KeyedQuestTaskType<I, K, T extends QuestTask<I, ?, T>> extends CacheableQuestTaskType<T, TaskKeyIndex<K>> {
+
+    /**
+     * Gets the keys the task can be progressed by.
+     *
+     * @param task The task to get the keys of.
+     * @return The keys, if empty the task will be tested against every input.
+     */
+    Collection<K> keys(T task);
+
+    /**
+     * Gets the keys the input can progress.
+     *
+     * @param input The input to get the keys of.
+     * @return The keys, or null if the input can progress any task of this type.
+     */
+    @Nullable
+    Collection<K> inputKeys(I input);
+
+    @Override
+    default TaskKeyIndex<K> cache(Collection<Quest> quests) {
+        return TaskKeyIndex.create(this, quests);
+    }
+
+    @Override
+    default TaskKeyIndex<K> add(TaskKeyIndex<K> cache, Quest quest, Collection<Quest> quests) {
+        cache.add(this, quest);
+        return cache;
+    }
+
+    @Override
+    default TaskKeyIndex<K> remove(TaskKeyIndex<K> cache, Quest quest, Collection<Quest> quests) {
+        cache.remove(quest);
+        return cache;
+    }
+}
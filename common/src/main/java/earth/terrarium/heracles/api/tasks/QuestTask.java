@@ -4,6 +4,10 @@ import earth.terrarium.heracles.api.tasks.storage.TaskStorage;
 import net.minecraft.nbt.Tag;
 import net.minecraft.server.level.ServerPlayer;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 public interface QuestTask<I, S extends Tag, T extends QuestTask<I, S, T>> {
 
     /**
@@ -46,6 +50,27 @@ public interface QuestTask<I, S extends Tag, T extends QuestTask<I, S, T>> {
         return type() == type;
     }
 
+    /**
+     * Gets all the task types this task can be progressed by.
+     * This must match {@link #isCompatibleWith(QuestTaskType)} as it is used to index tasks by type, by default it is
+     * every registered type the task is compatible with so tasks only overriding that method keep working. Tasks
+     * compatible with only their own type can return just that type instead.
+     *
+     * @return The compatible types.
+     */
+    default Collection<QuestTaskType<?>> compatibleTypes() {
+        List<QuestTaskType<?>> types = new ArrayList<>();
+        for (QuestTaskType<?> type : QuestTasks.types().values()) {
+            if (isCompatibleWith(type)) {
+                types.add(type);
+            }
+        }
+        if (!types.contains(type()) && isCompatibleWith(type())) {
+            types.add(type());
+        }
+        return types;
+    }
+
     /**
      * Gets the type of the task.
      *
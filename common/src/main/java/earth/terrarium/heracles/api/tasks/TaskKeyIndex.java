@@ -0,0 +1,104 @@
+package earth.terrarium.heracles.api.tasks;
+
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.api.tasks.defaults.CompositeTask;
+import earth.terrarium.heracles.common.utils.ModUtils;
+
+import java.util.*;
+
+/**
+ * An inverted index from the keys of a {@link KeyedQuestTaskType} to the top level tasks that can be progressed by them.
+ * Tasks nested in a {@link CompositeTask} are indexed as their top level composite task.
+ */
+public final class TaskKeyIndex<K> {
+
+    private final Map<K, Set<QuestTask<?, ?, ?>>> tasks = new HashMap<>();
+    private final Set<QuestTask<?, ?, ?>> unkeyed = Collections.newSetFromMap(new IdentityHashMap<>());
+    // The keys each quest's tasks were indexed under, quests are edited in place so their tasks can't be used to remove them.
+    private final Map<Quest, Map<QuestTask<?, ?, ?>, Collection<K>>> quests = new IdentityHashMap<>();
+
+    public static <K> TaskKeyIndex<K> create(KeyedQuestTaskType<?, K, ?> type, Collection<Quest> quests) {
+        TaskKeyIndex<K> index = new TaskKeyIndex<>();
+        for (Quest quest : quests) {
+            index.add(type, quest);
+        }
+        return index;
+    }
+
+    /**
+     * Indexes the tasks of the quest, a quest that was indexed before has to be removed first.
+     */
+    public void add(KeyedQuestTaskType<?, K, ?> type, Quest quest) {
+        Map<QuestTask<?, ?, ?>, Collection<K>> indexed = new IdentityHashMap<>();
+        for (QuestTask<?, ?, ?> task : quest.tasks().values()) {
+            add(type, task, task, indexed);
+        }
+        if (!indexed.isEmpty()) {
+            this.quests.put(quest, indexed);
+        }
+    }
+
+    private void add(KeyedQuestTaskType<?, K, ?> type, QuestTask<?, ?, ?> root, QuestTask<?, ?, ?> task, Map<QuestTask<?, ?, ?>, Collection<K>> indexed) {
+        if (task instanceof CompositeTask composite) {
+            for (QuestTask<?, ?, ?> child : composite.tasks().values()) {
+                add(type, root, child, indexed);
+            }
+        } else if (task.type() == type) {
+            Collection<K> keys = type.keys(ModUtils.cast(task));
+            Collection<K> rootKeys = indexed.computeIfAbsent(root, k -> new ArrayList<>());
+            if (keys.isEmpty()) {
+                this.unkeyed.add(root);
+            }
+            for (K key : keys) {
+                this.tasks.computeIfAbsent(key, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(root);
+                rootKeys.add(key);
+            }
+        }
+    }
+
+    /**
+     * Removes the tasks the quest had when it was indexed.
+     */
+    public void remove(Quest quest) {
+        Map<QuestTask<?, ?, ?>, Collection<K>> indexed = this.quests.remove(quest);
+        if (indexed == null) return;
+        indexed.forEach((task, keys) -> {
+            this.unkeyed.remove(task);
+            for (K key : keys) {
+                Set<QuestTask<?, ?, ?>> keyed = this.tasks.get(key);
+                if (keyed != null && keyed.remove(task) && keyed.isEmpty()) {
+                    this.tasks.remove(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return all the keys that progress at least one task.
+     */
+    public Set<K> keys() {
+        return Collections.unmodifiableSet(this.tasks.keySet());
+    }
+
+    /**
+     * @return true if any task can be progressed by the given key.
+     */
+    public boolean contains(K key) {
+        return !this.unkeyed.isEmpty() || this.tasks.containsKey(key);
+    }
+
+    /**
+     * Gets all the top level tasks that can be progressed by any of the given keys.
+     */
+    public Set<QuestTask<?, ?, ?>> get(Collection<K> keys) {
+        Set<QuestTask<?, ?, ?>> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        found.addAll(this.unkeyed);
+        for (K key : keys) {
+            Set<QuestTask<?, ?, ?>> keyed = this.tasks.get(key);
+            if (keyed != null) {
+                found.addAll(keyed);
+            }
+        }
+        return found;
+    }
+}
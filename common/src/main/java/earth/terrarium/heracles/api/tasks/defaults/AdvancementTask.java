@@ -8,6 +8,7 @@ import earth.terrarium.heracles.api.CustomizableQuestElement;
 import earth.terrarium.heracles.api.quests.QuestIcon;
 import earth.terrarium.heracles.api.quests.QuestIcons;
 import earth.terrarium.heracles.api.quests.defaults.ItemQuestIcon;
+import earth.terrarium.heracles.api.tasks.KeyedQuestTaskType;
 import earth.terrarium.heracles.api.tasks.QuestTask;
 import earth.terrarium.heracles.api.tasks.QuestTaskType;
 import earth.terrarium.heracles.api.tasks.storage.defaults.BooleanTaskStorage;
@@ -20,13 +21,15 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.ServerAdvancementManager;
 import net.minecraft.server.level.ServerPlayer;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 public record AdvancementTask(
     String id, String title, QuestIcon<?> icon, Set<ResourceLocation> advancements
 ) implements QuestTask<Advancement, NumericTag, AdvancementTask>, CustomizableQuestElement {
 
-    public static final QuestTaskType<AdvancementTask> TYPE = new Type();
+    public static final KeyedQuestTaskType<Advancement, ResourceLocation, AdvancementTask> TYPE = new Type();
 
     @Override
     public NumericTag test(QuestTaskType<?> type, NumericTag progress, Advancement input) {
@@ -65,7 +68,7 @@ public record AdvancementTask(
         return TYPE;
     }
 
-    private static class Type implements QuestTaskType<AdvancementTask> {
+    private static class Type implements KeyedQuestTaskType<Advancement, ResourceLocation, AdvancementTask> {
 
         @Override
         public ResourceLocation id() {
@@ -81,5 +84,15 @@ public record AdvancementTask(
                 CodecExtras.set(ResourceLocation.CODEC).fieldOf("advancements").forGetter(AdvancementTask::advancements)
             ).apply(instance, AdvancementTask::new));
         }
+
+        @Override
+        public Collection<ResourceLocation> keys(AdvancementTask task) {
+            return task.advancements();
+        }
+
+        @Override
+        public Collection<ResourceLocation> inputKeys(Advancement input) {
+            return List.of(input.getId());
+        }
     }
 }
@@ -14,7 +14,10 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.ExtraCodecs;
 import net.minecraft.util.Mth;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public final class CompositeTask implements QuestTask<Object, CollectionTag<Tag>, CompositeTask> {
@@ -87,6 +90,15 @@ public final class CompositeTask implements QuestTask<Object, CollectionTag<Tag>
         return tasks.values().stream().anyMatch(task -> task.isCompatibleWith(type));
     }
 
+    @Override
+    public Collection<QuestTaskType<?>> compatibleTypes() {
+        Set<QuestTaskType<?>> types = new HashSet<>();
+        for (QuestTask<?, ?, ?> task : tasks.values()) {
+            types.addAll(task.compatibleTypes());
+        }
+        return types;
+    }
+
     @Override
     public QuestTaskType<CompositeTask> type() {
         return TYPE;
@@ -1,5 +1,6 @@
 package earth.terrarium.heracles.api.tasks.defaults;
 
+import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import com.teamresourceful.resourcefullib.common.codecs.CodecExtras;
@@ -11,10 +12,12 @@ import earth.terrarium.heracles.api.quests.QuestIcon;
 import earth.terrarium.heracles.api.quests.QuestIcons;
 import earth.terrarium.heracles.api.quests.defaults.ItemQuestIcon;
 import earth.terrarium.heracles.api.tasks.CollectionType;
+import earth.terrarium.heracles.api.tasks.KeyedQuestTaskType;
 import earth.terrarium.heracles.api.tasks.PairQuestTask;
 import earth.terrarium.heracles.api.tasks.QuestTaskType;
 import earth.terrarium.heracles.api.tasks.storage.defaults.IntegerTaskStorage;
 import earth.terrarium.heracles.common.utils.RegistryValue;
+import net.minecraft.core.Holder;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.nbt.NumericTag;
 import net.minecraft.resources.ResourceLocation;
@@ -25,6 +28,7 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,7 +36,7 @@ public record GatherItemTask(
     String id, String title, QuestIcon<?> icon, RegistryValue<Item> item, NbtPredicate nbt, int target, CollectionType collectionType
 ) implements PairQuestTask<Optional<ItemStack>, Container, NumericTag, GatherItemTask>, CustomizableQuestElement {
 
-    public static final QuestTaskType<GatherItemTask> TYPE = new Type();
+    public static final KeyedQuestTaskType<Pair<Optional<ItemStack>, Container>, Object, GatherItemTask> TYPE = new Type();
 
     @Override
     public NumericTag test(QuestTaskType<?> type, NumericTag progress, Optional<ItemStack> stack, Container container) {
@@ -123,7 +127,11 @@ public record GatherItemTask(
         return TYPE;
     }
 
-    private static class Type implements QuestTaskType<GatherItemTask> {
+    /**
+     * Keys are either the {@link Item} or the item {@link net.minecraft.tags.TagKey} of the task,
+     * inputs are keyed by the item of the stack and all of its tags.
+     */
+    private static class Type implements KeyedQuestTaskType<Pair<Optional<ItemStack>, Container>, Object, GatherItemTask> {
 
         @Override
         public ResourceLocation id() {
@@ -145,6 +153,21 @@ public record GatherItemTask(
             return CodecExtras.eitherLeft(Codec.either(newCodec, legacyCodec(id)));
         }
 
+        @Override
+        public Collection<Object> keys(GatherItemTask task) {
+            return List.of(task.item().value().<Object>map(Holder::value, tag -> tag));
+        }
+
+        @Override
+        public Collection<Object> inputKeys(Pair<Optional<ItemStack>, Container> input) {
+            if (input.getFirst().isEmpty()) return null;
+            ItemStack stack = input.getFirst().get();
+            List<Object> keys = new ArrayList<>();
+            keys.add(stack.getItem());
+            stack.getTags().forEach(keys::add);
+            return keys;
+        }
+
         private Codec<GatherItemTask> legacyCodec(String id) {
             return RecordCodecBuilder.create(instance -> instance.group(
                 RecordCodecBuilder.point(id),
@@ -8,6 +8,7 @@ import earth.terrarium.heracles.api.CustomizableQuestElement;
 import earth.terrarium.heracles.api.quests.QuestIcon;
 import earth.terrarium.heracles.api.quests.QuestIcons;
 import earth.terrarium.heracles.api.quests.defaults.ItemQuestIcon;
+import earth.terrarium.heracles.api.tasks.KeyedQuestTaskType;
 import earth.terrarium.heracles.api.tasks.QuestTask;
 import earth.terrarium.heracles.api.tasks.QuestTaskType;
 import earth.terrarium.heracles.api.tasks.storage.defaults.IntegerTaskStorage;
@@ -15,13 +16,17 @@ import net.minecraft.nbt.IntTag;
 import net.minecraft.nbt.NumericTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
 
+import java.util.Collection;
+import java.util.List;
+
 public record KillEntityQuestTask(
     String id, String title, QuestIcon<?> icon, RestrictedEntityPredicate entity, int target
 ) implements QuestTask<LivingEntity, NumericTag, KillEntityQuestTask>, CustomizableQuestElement {
 
-    public static final QuestTaskType<KillEntityQuestTask> TYPE = new Type();
+    public static final KeyedQuestTaskType<LivingEntity, EntityType<?>, KillEntityQuestTask> TYPE = new Type();
 
     @Override
     public NumericTag test(QuestTaskType<?> type, NumericTag progress, LivingEntity input) {
@@ -47,7 +52,7 @@ public record KillEntityQuestTask(
         return TYPE;
     }
 
-    private static class Type implements QuestTaskType<KillEntityQuestTask> {
+    private static class Type implements KeyedQuestTaskType<LivingEntity, EntityType<?>, KillEntityQuestTask> {
 
         @Override
         public ResourceLocation id() {
@@ -64,5 +69,15 @@ public record KillEntityQuestTask(
                 Codec.INT.fieldOf("amount").orElse(1).forGetter(KillEntityQuestTask::target)
             ).apply(instance, KillEntityQuestTask::new));
         }
+
+        @Override
+        public Collection<EntityType<?>> keys(KillEntityQuestTask task) {
+            return List.of(task.entity().entityType());
+        }
+
+        @Override
+        public Collection<EntityType<?>> inputKeys(LivingEntity input) {
+            return List.of(input.getType());
+        }
     }
 }
@@ -8,6 +8,7 @@ import earth.terrarium.heracles.api.CustomizableQuestElement;
 import earth.terrarium.heracles.api.quests.QuestIcon;
 import earth.terrarium.heracles.api.quests.QuestIcons;
 import earth.terrarium.heracles.api.quests.defaults.ItemQuestIcon;
+import earth.terrarium.heracles.api.tasks.KeyedQuestTaskType;
 import earth.terrarium.heracles.api.tasks.QuestTask;
 import earth.terrarium.heracles.api.tasks.QuestTaskType;
 import earth.terrarium.heracles.api.tasks.storage.defaults.BooleanTaskStorage;
@@ -16,16 +17,13 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.crafting.Recipe;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 
 public record RecipeTask(
     String id, String title, QuestIcon<?> icon, Set<ResourceLocation> recipes
 ) implements QuestTask<Recipe<?>, NumericTag, RecipeTask>, CustomizableQuestElement {
 
-    public static final QuestTaskType<RecipeTask> TYPE = new Type();
+    public static final KeyedQuestTaskType<Recipe<?>, ResourceLocation, RecipeTask> TYPE = new Type();
 
     @Override
     public NumericTag test(QuestTaskType<?> type, NumericTag progress, Recipe<?> input) {
@@ -59,7 +57,7 @@ public record RecipeTask(
         return titles;
     }
 
-    private static class Type implements QuestTaskType<RecipeTask> {
+    private static class Type implements KeyedQuestTaskType<Recipe<?>, ResourceLocation, RecipeTask> {
 
         @Override
         public ResourceLocation id() {
@@ -75,5 +73,15 @@ public record RecipeTask(
                 CodecExtras.set(ResourceLocation.CODEC).fieldOf("recipes").forGetter(RecipeTask::recipes)
             ).apply(instance, RecipeTask::new));
         }
+
+        @Override
+        public Collection<ResourceLocation> keys(RecipeTask task) {
+            return task.recipes();
+        }
+
+        @Override
+        public Collection<ResourceLocation> inputKeys(Recipe<?> input) {
+            return List.of(input.getId());
+        }
     }
 }
@@ -1,17 +1,17 @@
 package earth.terrarium.heracles.api.tasks.defaults;
 
+import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.api.CustomizableQuestElement;
-import earth.terrarium.heracles.api.quests.Quest;
 import earth.terrarium.heracles.api.quests.QuestIcon;
 import earth.terrarium.heracles.api.quests.QuestIcons;
 import earth.terrarium.heracles.api.quests.defaults.ItemQuestIcon;
-import earth.terrarium.heracles.api.tasks.CacheableQuestTaskType;
+import earth.terrarium.heracles.api.tasks.KeyedQuestTaskType;
 import earth.terrarium.heracles.api.tasks.PairQuestTask;
-import earth.terrarium.heracles.api.tasks.QuestTask;
 import earth.terrarium.heracles.api.tasks.QuestTaskType;
+import earth.terrarium.heracles.api.tasks.TaskKeyIndex;
 import earth.terrarium.heracles.api.tasks.storage.defaults.IntegerTaskStorage;
 import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
 import net.minecraft.nbt.NumericTag;
@@ -21,14 +21,13 @@ import net.minecraft.stats.Stats;
 import org.jetbrains.annotations.ApiStatus;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 public record StatTask(
     String id, String title, QuestIcon<?> icon, ResourceLocation stat, int target
 ) implements PairQuestTask<ResourceLocation, Integer, NumericTag, StatTask>, CustomizableQuestElement {
 
-    public static final CacheableQuestTaskType<StatTask, Set<ResourceLocation>> TYPE = new Type();
+    public static final KeyedQuestTaskType<Pair<ResourceLocation, Integer>, ResourceLocation, StatTask> TYPE = new Type();
 
     @Override
     public NumericTag test(QuestTaskType<?> type, NumericTag progress, ResourceLocation stat, Integer amount) {
@@ -59,7 +58,7 @@ public record StatTask(
         return TYPE;
     }
 
-    private static class Type implements CacheableQuestTaskType<StatTask, Set<ResourceLocation>> {
+    private static class Type implements KeyedQuestTaskType<Pair<ResourceLocation, Integer>, ResourceLocation, StatTask> {
 
         @Override
         public ResourceLocation id() {
@@ -78,22 +77,19 @@ public record StatTask(
         }
 
         @Override
-        public Set<ResourceLocation> cache(Collection<Quest> collection) {
-            Set<ResourceLocation> stats = new HashSet<>();
-            for (Quest quest : collection) {
-                for (QuestTask<?, ?, ?> value : quest.tasks().values()) {
-                    if (value instanceof StatTask task) {
-                        stats.add(task.stat());
-                    }
-                }
-            }
-            return stats;
+        public Collection<ResourceLocation> keys(StatTask task) {
+            return List.of(task.stat());
+        }
+
+        @Override
+        public Collection<ResourceLocation> inputKeys(Pair<ResourceLocation, Integer> input) {
+            return List.of(input.getFirst());
         }
     }
 
     @ApiStatus.Internal
     public static boolean hasStat(ResourceLocation id) {
-        Set<ResourceLocation> stats = QuestHandler.getTaskCache(TYPE);
+        TaskKeyIndex<ResourceLocation> stats = QuestHandler.getTaskCache(TYPE);
         return stats != null && stats.contains(id);
     }
 }
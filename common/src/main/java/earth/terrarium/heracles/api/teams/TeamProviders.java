@@ -1,40 +1,96 @@
 package earth.terrarium.heracles.api.teams;
 
+import net.minecraft.Util;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 public final class TeamProviders {
 
     private static final Map<ResourceLocation, TeamProvider> providers = new ConcurrentHashMap<>();
+    // Members by player, cleared whenever a provider reports that a player changed teams. The two lookups are cached
+    // apart as providers don't include the player in one but do in the other.
+    private static final MemberCache playerMembers = new MemberCache();
+    private static final MemberCache levelMembers = new MemberCache();
 
     public static void register(ResourceLocation id, TeamProvider provider) {
         providers.put(id, provider);
+        clearCache();
     }
 
+    /**
+     * Gets the members of all the teams of the player, the returned list is immutable and shared between calls.
+     */
     public static List<UUID> getMembers(ServerPlayer player) {
-        return providers.values().stream()
+        if (providers.isEmpty()) return List.of();
+        return playerMembers.get(player.getUUID(), () -> providers.values().stream()
             .flatMap(provider -> provider.getTeams(player))
             .flatMap(List::stream)
             .distinct()
-            .toList();
+            .toList());
     }
 
+    /**
+     * Gets the members of all the teams of the player, the returned list is immutable and shared between calls.
+     */
     public static List<UUID> getMembers(ServerLevel level, UUID player) {
-        return providers.values().stream()
+        if (providers.isEmpty()) return List.of();
+        return levelMembers.get(player, () -> providers.values().stream()
             .flatMap(provider -> provider.getTeams(level, player))
             .flatMap(List::stream)
             .distinct()
-            .toList();
+            .toList());
     }
 
     public static void init(BiConsumer<ServerLevel, UUID> changer) {
-        providers.values().forEach(provider -> provider.setupTeamChanger(changer));
+        clearCache();
+        providers.values().forEach(provider -> provider.setupTeamChanger((level, player) -> {
+            // A change affects the old and new teammates as well, so the whole cache is cleared.
+            clearCache();
+            changer.accept(level, player);
+        }));
+    }
+
+    private static void clearCache() {
+        playerMembers.clear();
+        levelMembers.clear();
+    }
+
+    /**
+     * Keeps the members of the most recently looked up players for a while, so a provider that doesn't report a
+     * change is only out of date for a short time and players that left don't stay in the cache.
+     */
+    private static final class MemberCache {
+
+        private static final int MAX_SIZE = 512;
+        private static final long EXPIRY = 30000;
+
+        private final Map<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > MAX_SIZE;
+            }
+        };
+
+        private synchronized List<UUID> get(UUID player, Supplier<List<UUID>> members) {
+            long now = Util.getMillis();
+            Entry entry = entries.get(player);
+            if (entry == null || now - entry.time() > EXPIRY) {
+                entry = new Entry(members.get(), now);
+                entries.put(player, entry);
+            }
+            return entry.members();
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+
+        private record Entry(List<UUID> members, long time) {}
     }
 }
@@ -3,6 +3,7 @@ package earth.terrarium.heracles.client;
 import com.mojang.blaze3d.platform.InputConstants;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.client.data.ThemeHandler;
+import earth.terrarium.heracles.client.handlers.ClientQuestSync;
 import earth.terrarium.heracles.client.handlers.ClientQuests;
 import earth.terrarium.heracles.client.handlers.DisplayConfig;
 import earth.terrarium.heracles.client.handlers.QuestTutorial;
@@ -65,15 +66,16 @@ public class HeraclesClient {
     }
 
     public static void displayItemsRewardedToast(String id, List<Item> items) {
-        QuestClaimedToast.addOrUpdate(Minecraft.getInstance().getToasts(), id, items);
+        ClientQuestSync.load(List.of(id), () -> QuestClaimedToast.addOrUpdate(Minecraft.getInstance().getToasts(), id, items));
     }
 
     public static void displayQuestCompleteToast(String id) {
-        QuestCompletedToast.add(Minecraft.getInstance().getToasts(), id);
+        ClientQuestSync.load(List.of(id), () -> QuestCompletedToast.add(Minecraft.getInstance().getToasts(), id));
     }
 
     public static void displayQuestUnlockedToast(String id) {
-        QuestUnlockedToast.add(Minecraft.getInstance().getToasts(), id);
+        // Unlocked quests are usually not loaded yet, the toast is shown once they are.
+        ClientQuestSync.load(List.of(id), () -> QuestUnlockedToast.add(Minecraft.getInstance().getToasts(), id));
     }
 
     public static void initReloadListeners(BiConsumer<ResourceLocation, PreparableReloadListener> init) {
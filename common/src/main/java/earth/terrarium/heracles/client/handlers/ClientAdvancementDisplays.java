@@ -1,5 +1,7 @@
 package earth.terrarium.heracles.client.handlers;
 
+import earth.terrarium.heracles.common.network.NetworkHandler;
+import earth.terrarium.heracles.common.network.packets.ServerboundCatalogueRequestPacket;
 import net.minecraft.advancements.Advancement;
 import net.minecraft.advancements.AdvancementList;
 import net.minecraft.advancements.DisplayInfo;
@@ -7,18 +9,38 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.resources.ResourceLocation;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 public class ClientAdvancementDisplays {
 
     private static final Map<ResourceLocation, DisplayInfo> ADVANCEMENTS = new HashMap<>();
+    private static final List<Runnable> WAITING = new ArrayList<>();
+    private static boolean catalogue = false;
 
-    public static void add(Map<ResourceLocation, DisplayInfo> advancements) {
+    public static void add(Map<ResourceLocation, DisplayInfo> advancements, boolean catalogue) {
         ADVANCEMENTS.clear();
         ADVANCEMENTS.putAll(advancements);
+        ClientAdvancementDisplays.catalogue = catalogue;
+        if (catalogue) {
+            List<Runnable> waiting = List.copyOf(WAITING);
+            WAITING.clear();
+            waiting.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Only the advancements used by the quests are synced, this requests all of them for the editor and runs the
+     * callback once they arrived.
+     */
+    public static void requestCatalogue(Runnable callback) {
+        if (catalogue) {
+            callback.run();
+            return;
+        }
+        if (WAITING.isEmpty()) {
+            NetworkHandler.CHANNEL.sendToServer(new ServerboundCatalogueRequestPacket(ServerboundCatalogueRequestPacket.Catalogue.ADVANCEMENTS));
+        }
+        WAITING.add(callback);
     }
 
     public static DisplayInfo get(ResourceLocation id) {
@@ -0,0 +1,114 @@
+package earth.terrarium.heracles.client.handlers;
+
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.common.handlers.syncing.QuestPackEntries;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the quests synced by servers on disk by the hash of their data, so joining a server again only
+ * downloads the quests that changed since the last time. The same quest is shared between servers.
+ */
+public final class ClientQuestCache {
+
+    private static final Duration MAX_AGE = Duration.ofDays(30);
+
+    private static boolean pruned = false;
+
+    private static Path directory() {
+        return Minecraft.getInstance().gameDirectory.toPath().resolve(Heracles.MOD_ID).resolve("quest_cache");
+    }
+
+    private static Path file(long hash) {
+        return directory().resolve(String.format("%016x.bin", hash));
+    }
+
+    /**
+     * Reads the quests that are cached, quests that are missing or fail to decode are left out.
+     */
+    public static Map<String, Quest> resolve(Map<String, Long> quests) {
+        Map<String, Quest> cached = new HashMap<>();
+        for (var entry : quests.entrySet()) {
+            byte[] data = read(entry.getValue());
+            if (data == null) continue;
+            Quest quest = QuestPackEntries.decode(data);
+            if (quest != null) {
+                cached.put(entry.getKey(), quest);
+            }
+        }
+        return cached;
+    }
+
+    private static byte[] read(long hash) {
+        Path file = file(hash);
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            byte[] data = Files.readAllBytes(file);
+            if (QuestPackEntries.hash(data) != hash) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            // Touched so quests that are still in use are not pruned.
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return data;
+        } catch (IOException e) {
+            Heracles.LOGGER.warn("Failed to read cached quest {}", file.getFileName(), e);
+            return null;
+        }
+    }
+
+    public static void write(Map<String, byte[]> entries) {
+        if (entries.isEmpty()) return;
+        Util.ioPool().execute(() -> {
+            for (byte[] data : entries.values()) {
+                Path file = file(QuestPackEntries.hash(data));
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                try {
+                    Files.createDirectories(file.getParent());
+                    Files.write(temp, data);
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    Heracles.LOGGER.warn("Failed to cache quest {}", file.getFileName(), e);
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException ignored) {}
+                }
+            }
+        });
+    }
+
+    /**
+     * Deletes the quests that have not been used for a while, only done once per session.
+     */
+    public static void prune() {
+        if (pruned) return;
+        pruned = true;
+        Path directory = directory();
+        Util.ioPool().execute(() -> {
+            if (!Files.isDirectory(directory)) return;
+            long cutoff = System.currentTimeMillis() - MAX_AGE.toMillis();
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(file -> {
+                    try {
+                        if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                            Files.deleteIfExists(file);
+                        }
+                    } catch (IOException ignored) {}
+                });
+            } catch (IOException e) {
+                Heracles.LOGGER.warn("Failed to prune the quest cache", e);
+            }
+        });
+    }
+}
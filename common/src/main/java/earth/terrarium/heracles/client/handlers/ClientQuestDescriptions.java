@@ -0,0 +1,131 @@
+package earth.terrarium.heracles.client.handlers;
+
+import earth.terrarium.heracles.common.network.NetworkHandler;
+import earth.terrarium.heracles.common.network.packets.quests.RequestDescriptionsPacket;
+import net.minecraft.Util;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Quest descriptions are not part of the synced quests, they are requested from the server when a quest is opened.
+ * <p>
+ * The descriptions are kept here rather than on the quests, only the most recently used ones are kept so the client
+ * doesn't end up holding the descriptions of the whole pack.
+ */
+public final class ClientQuestDescriptions {
+
+    private static final int MAX_LOADED = 128;
+    private static final int MAX_PREFETCH = 8;
+    // Quests the server doesn't know never get an answer, they are requested again once this passed.
+    private static final long TIMEOUT = 10000;
+
+    private static final Map<String, List<String>> LOADED = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MAX_LOADED;
+        }
+    };
+    private static final Map<String, Pending> PENDING = new HashMap<>();
+
+    public static boolean isLoaded(String id) {
+        return LOADED.containsKey(id);
+    }
+
+    /**
+     * @return the description of the quest, or an empty list if it isn't loaded.
+     */
+    public static List<String> description(String id) {
+        return LOADED.getOrDefault(id, List.of());
+    }
+
+    /**
+     * Calls the callback with the description of the quest, right away when it is loaded or once the server sent it.
+     */
+    public static void get(String id, Consumer<List<String>> callback) {
+        request(id, null, callback);
+    }
+
+    /**
+     * Same as {@link #get(String, Consumer)} but also prefetches the descriptions of the quests linked to this one
+     * in the group, as those are the quests most likely to be opened next.
+     */
+    public static void request(String id, @Nullable String group, Consumer<List<String>> callback) {
+        Optional<ClientQuests.QuestEntry> quest = ClientQuests.get(id);
+        if (quest.isEmpty()) return;
+        // Looked up with get so the quest counts as recently used.
+        List<String> loaded = LOADED.get(id);
+        if (loaded != null) {
+            callback.accept(loaded);
+            return;
+        }
+        long now = Util.getMillis();
+        PENDING.values().removeIf(pending -> now - pending.requested > TIMEOUT);
+        List<String> missing = new ArrayList<>();
+        boolean pending = PENDING.containsKey(id);
+        PENDING.computeIfAbsent(id, key -> new Pending(now)).callbacks.add(callback);
+        if (!pending) {
+            missing.add(id);
+        }
+        if (group != null) {
+            List<ClientQuests.QuestEntry> neighbours = new ArrayList<>(quest.get().dependencies());
+            neighbours.addAll(quest.get().dependents());
+            for (ClientQuests.QuestEntry neighbour : neighbours) {
+                if (missing.size() >= MAX_PREFETCH) break;
+                String key = neighbour.key();
+                if (!neighbour.value().display().groups().containsKey(group)) continue;
+                if (LOADED.containsKey(key) || PENDING.containsKey(key) || missing.contains(key)) continue;
+                PENDING.put(key, new Pending(now));
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            NetworkHandler.CHANNEL.sendToServer(new RequestDescriptionsPacket(missing));
+        }
+    }
+
+    public static void onDescriptions(Map<String, List<String>> descriptions) {
+        for (var entry : descriptions.entrySet()) {
+            Pending pending = PENDING.remove(entry.getKey());
+            if (ClientQuests.get(entry.getKey()).isEmpty()) continue;
+            List<String> description = List.copyOf(entry.getValue());
+            LOADED.put(entry.getKey(), description);
+            if (pending != null) {
+                pending.callbacks.forEach(callback -> callback.accept(description));
+            }
+        }
+    }
+
+    /**
+     * Sets the loaded description of the quest, for quests that were sent or edited with their description.
+     */
+    public static void markLoaded(String id, List<String> description) {
+        List<String> loaded = List.copyOf(description);
+        LOADED.put(id, loaded);
+        Pending pending = PENDING.remove(id);
+        if (pending != null) {
+            pending.callbacks.forEach(callback -> callback.accept(loaded));
+        }
+    }
+
+    public static void forget(String id) {
+        LOADED.remove(id);
+        PENDING.remove(id);
+    }
+
+    public static void clear() {
+        LOADED.clear();
+        PENDING.clear();
+    }
+
+    private static final class Pending {
+
+        private final long requested;
+        private final List<Consumer<List<String>>> callbacks = new ArrayList<>();
+
+        private Pending(long requested) {
+            this.requested = requested;
+        }
+    }
+}
@@ -9,6 +9,7 @@ public class ClientQuestNetworking {
 
     public static ClientQuests.QuestEntry add(String id, Quest quest) {
         ClientQuests.QuestEntry entry = ClientQuests.addQuest(id, quest);
+        ClientQuestDescriptions.markLoaded(id, quest.display().description());
         NetworkHandler.CHANNEL.sendToServer(new ServerboundAddQuestPacket(id, quest));
         return entry;
     }
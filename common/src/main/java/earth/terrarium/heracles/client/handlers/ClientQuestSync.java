@@ -0,0 +1,176 @@
+package earth.terrarium.heracles.client.handlers;
+
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.common.network.NetworkHandler;
+import earth.terrarium.heracles.common.network.packets.quests.QuestManifestPacket;
+import earth.terrarium.heracles.common.network.packets.quests.RequestQuestsPacket;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads the quests listed by the server as they are needed, from the {@link ClientQuestCache} or by requesting them
+ * from the server. At join only the groups are known, the quests of a group are loaded when it is first opened and
+ * quests that are pinned or in progress are loaded as their progress arrives.
+ */
+public final class ClientQuestSync {
+
+    private static int request = 0;
+    private static Map<String, QuestManifestPacket.Entry> manifest = Map.of();
+    private static final Set<String> STALE = new HashSet<>();
+    // Quests the server listed but that couldn't be loaded, they are not requested again until the next manifest.
+    private static final Set<String> FAILED = new HashSet<>();
+    private static final Map<String, List<Runnable>> LOADING = new HashMap<>();
+    private static final Map<Integer, Collection<String>> REQUESTS = new HashMap<>();
+    // The server sends one request at a time, quests needed while a request is being answered wait for the next one.
+    private static final Set<String> QUEUED = new LinkedHashSet<>();
+
+    public static void onManifest(Map<String, QuestManifestPacket.Entry> quests, List<String> groups) {
+        Heracles.LOGGER.debug("Received {} quests in {} groups", quests.size(), groups.size());
+        manifest = quests;
+        STALE.clear();
+        FAILED.clear();
+        LOADING.clear();
+        REQUESTS.clear();
+        QUEUED.clear();
+        ClientQuests.sync(Map.of(), groups);
+        ClientQuestCache.prune();
+    }
+
+    public static boolean isKnown(String id) {
+        return manifest.containsKey(id) && !FAILED.contains(id);
+    }
+
+    public static boolean hasQuests() {
+        return !manifest.isEmpty() || !ClientQuests.entries().isEmpty();
+    }
+
+    public static void loadGroup(String group, Runnable callback) {
+        List<String> quests = new ArrayList<>();
+        manifest.forEach((id, entry) -> {
+            if (entry.groups().contains(group)) {
+                quests.add(id);
+            }
+        });
+        load(quests, callback);
+    }
+
+    public static void loadAll(Runnable callback) {
+        load(manifest.keySet(), callback);
+    }
+
+    /**
+     * Loads the quest and the quests it depends on, which can be in groups that aren't loaded, then runs the callback.
+     */
+    public static void loadWithDependencies(String id, Runnable callback) {
+        load(List.of(id), () -> load(
+            ClientQuests.get(id).map(entry -> entry.value().dependencies()).orElse(Set.of()),
+            callback
+        ));
+    }
+
+    /**
+     * Loads the quests and then runs the callback, right away if they are all loaded already. Quests the server
+     * doesn't have or that failed to load are skipped.
+     */
+    public static void load(Collection<String> quests, Runnable callback) {
+        Map<String, Long> missing = new HashMap<>();
+        List<String> waiting = new ArrayList<>();
+        for (String id : quests) {
+            QuestManifestPacket.Entry entry = manifest.get(id);
+            if (entry == null || FAILED.contains(id) || ClientQuests.get(id).isPresent()) continue;
+            if (!LOADING.containsKey(id)) {
+                LOADING.put(id, new ArrayList<>());
+                missing.put(id, entry.hash());
+            }
+            waiting.add(id);
+        }
+        if (waiting.isEmpty()) {
+            callback.run();
+            return;
+        }
+        Runnable done = new Runnable() {
+            private int remaining = waiting.size();
+
+            @Override
+            public void run() {
+                if (--remaining == 0) {
+                    callback.run();
+                }
+            }
+        };
+        waiting.forEach(id -> LOADING.get(id).add(done));
+        if (missing.isEmpty()) return;
+
+        Map<String, QuestManifestPacket.Entry> current = manifest;
+        Map<String, Long> cacheable = new HashMap<>(missing);
+        cacheable.keySet().removeAll(STALE);
+        CompletableFuture.supplyAsync(() -> ClientQuestCache.resolve(cacheable), Util.ioPool())
+            .thenAcceptAsync(cached -> {
+                if (manifest != current) return;
+                onLoaded(cached);
+                for (String id : missing.keySet()) {
+                    if (!cached.containsKey(id)) {
+                        QUEUED.add(id);
+                    }
+                }
+                sendRequest();
+            }, Minecraft.getInstance());
+    }
+
+    private static void sendRequest() {
+        if (!REQUESTS.isEmpty() || QUEUED.isEmpty()) return;
+        List<String> requested = List.copyOf(QUEUED);
+        QUEUED.clear();
+        request++;
+        REQUESTS.put(request, requested);
+        NetworkHandler.CHANNEL.sendToServer(new RequestQuestsPacket(request, requested));
+    }
+
+    /**
+     * Called when a quest that isn't loaded was changed on the server, the cached copy is outdated so the quest is
+     * loaded from the server right away, the change may have moved it to another group.
+     */
+    public static void refresh(String id) {
+        if (!manifest.containsKey(id) || ClientQuests.get(id).isPresent()) return;
+        STALE.add(id);
+        FAILED.remove(id);
+        load(List.of(id), () -> {});
+    }
+
+    public static void onEntries(int request, Map<String, byte[]> entries, Map<String, Quest> quests, boolean last) {
+        Collection<String> requested = last ? REQUESTS.remove(request) : REQUESTS.get(request);
+        if (requested == null) return;
+        ClientQuestCache.write(entries);
+        onLoaded(quests);
+        if (last) {
+            // Quests the server no longer has or that failed to decode are given up on, so nothing waits for them
+            // and they aren't requested again every time they are needed.
+            for (String id : requested) {
+                if (ClientQuests.get(id).isEmpty()) {
+                    FAILED.add(id);
+                }
+                List<Runnable> callbacks = LOADING.remove(id);
+                if (callbacks != null) {
+                    callbacks.forEach(Runnable::run);
+                }
+            }
+            sendRequest();
+        }
+    }
+
+    private static void onLoaded(Map<String, Quest> quests) {
+        if (quests.isEmpty()) return;
+        ClientQuests.load(quests);
+        for (String id : quests.keySet()) {
+            STALE.remove(id);
+            List<Runnable> callbacks = LOADING.remove(id);
+            if (callbacks != null) {
+                callbacks.forEach(Runnable::run);
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import earth.terrarium.heracles.common.network.NetworkHandler;
 import earth.terrarium.heracles.common.network.packets.quests.ServerboundUpdateQuestPacket;
 import earth.terrarium.heracles.common.network.packets.quests.data.NetworkQuestData;
 import earth.terrarium.heracles.common.utils.ModUtils;
+import net.minecraft.nbt.CompoundTag;
 
 import java.util.*;
 import java.util.function.Function;
@@ -19,6 +20,8 @@ public class ClientQuests {
     private static final List<String> GROUPS = new ArrayList<>();
 
     private static final Map<String, QuestProgress> PROGRESS = new HashMap<>();
+    // The progress of quests that aren't loaded yet, it needs the quest to be read.
+    private static final Map<String, CompoundTag> UNLOADED_PROGRESS = new HashMap<>();
 
     public static Optional<QuestEntry> get(String key) {
         return Optional.ofNullable(ENTRIES.get(key));
@@ -35,6 +38,7 @@ public class ClientQuests {
         ENTRIES.clear();
         BY_GROUPS.clear();
         GROUPS.clear();
+        ClientQuestDescriptions.clear();
 
         for (Map.Entry<String, Quest> entry : quests.entrySet()) {
             addEntry(entry.getKey(), entry.getValue(), quests);
@@ -48,22 +52,67 @@ public class ClientQuests {
         }
     }
 
-    public static void syncDescriptions(Map<String, String> descriptions) {
-        for (Map.Entry<String, String> entry : descriptions.entrySet()) {
-            get(entry.getKey())
-                .map(QuestEntry::value)
-                .map(Quest::display)
-                .ifPresent(display -> display.setDescription(List.of(entry.getValue().split("\n"))));
+    /**
+     * Adds quests that were loaded after the quests were synced. The quests are linked in one pass over the loaded
+     * quests instead of one per added quest, as whole groups are loaded at once.
+     */
+    public static void load(Map<String, Quest> quests) {
+        List<QuestEntry> added = new ArrayList<>(quests.size());
+        for (var entry : quests.entrySet()) {
+            if (ENTRIES.containsKey(entry.getKey())) {
+                remove(entry.getKey());
+            }
+            QuestEntry value = new QuestEntry(entry.getKey(), entry.getValue());
+            ENTRIES.put(entry.getKey(), value);
+            for (String s : entry.getValue().display().groups().keySet()) {
+                BY_GROUPS.computeIfAbsent(s, k -> new ArrayList<>()).add(value);
+            }
+            added.add(value);
+            CompoundTag progress = UNLOADED_PROGRESS.remove(entry.getKey());
+            if (progress != null) {
+                PROGRESS.put(entry.getKey(), new QuestProgress(entry.getValue(), progress));
+            }
+        }
+        for (QuestEntry entry : added) {
+            for (String dependency : entry.value().dependencies()) {
+                QuestEntry dependent = ENTRIES.get(dependency);
+                if (dependent != null) {
+                    entry.dependencies().add(dependent);
+                    dependent.dependents().add(entry);
+                }
+            }
+        }
+        for (QuestEntry value : ENTRIES.values()) {
+            if (quests.containsKey(value.key())) continue;
+            for (String dependency : value.value().dependencies()) {
+                QuestEntry entry = quests.containsKey(dependency) ? ENTRIES.get(dependency) : null;
+                if (entry != null) {
+                    value.dependencies().add(entry);
+                    entry.dependents().add(value);
+                }
+            }
         }
     }
 
     public static void updateProgress(Map<String, QuestProgress> progress) {
+        updateProgress(progress, Map.of());
+    }
+
+    public static void updateProgress(Map<String, QuestProgress> progress, Map<String, CompoundTag> unloaded) {
         PROGRESS.clear();
         PROGRESS.putAll(progress);
+        UNLOADED_PROGRESS.clear();
+        UNLOADED_PROGRESS.putAll(unloaded);
     }
 
     public static void mergeProgress(Map<String, QuestProgress> progress) {
+        mergeProgress(progress, Map.of());
+    }
+
+    public static void mergeProgress(Map<String, QuestProgress> progress, Map<String, CompoundTag> unloaded) {
         PROGRESS.putAll(progress);
+        progress.keySet().forEach(UNLOADED_PROGRESS::remove);
+        UNLOADED_PROGRESS.putAll(unloaded);
     }
 
     private static QuestEntry addEntry(
@@ -97,6 +146,7 @@ public class ClientQuests {
 
     public static void remove(String id) {
         QuestEntry quest = ENTRIES.remove(id);
+        ClientQuestDescriptions.forget(id);
         BY_GROUPS.values().forEach(list -> list.removeIf(entry -> entry.key().equals(id)));
         if (quest != null) {
             for (QuestEntry dependency : quest.dependencies()) {
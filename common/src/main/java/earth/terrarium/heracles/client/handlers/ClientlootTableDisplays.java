@@ -1,21 +1,49 @@
 package earth.terrarium.heracles.client.handlers;
 
+import earth.terrarium.heracles.common.network.NetworkHandler;
+import earth.terrarium.heracles.common.network.packets.ServerboundCatalogueRequestPacket;
 import net.minecraft.client.Minecraft;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.storage.loot.LootDataType;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class ClientlootTableDisplays {
 
     private static final Set<ResourceLocation> LOOT_TABLES = new HashSet<>();
+    private static final List<Runnable> WAITING = new ArrayList<>();
+    private static boolean catalogue = false;
 
-    public static void set(Set<ResourceLocation> lootTables) {
+    public static void set(Set<ResourceLocation> lootTables, boolean catalogue) {
         LOOT_TABLES.clear();
         LOOT_TABLES.addAll(lootTables);
+        ClientlootTableDisplays.catalogue = catalogue;
+        if (catalogue) {
+            List<Runnable> waiting = List.copyOf(WAITING);
+            WAITING.clear();
+            waiting.forEach(Runnable::run);
+        }
+    }
+
+    /**
+     * Only the loot tables used by the quests are synced, this requests all of them for the editor and runs the
+     * callback once they arrived. Singleplayer has the server's loot tables already so nothing is requested.
+     */
+    public static void requestCatalogue(Runnable callback) {
+        Player player = Minecraft.getInstance().player;
+        if (catalogue || (player != null && player.getServer() != null)) {
+            callback.run();
+            return;
+        }
+        if (WAITING.isEmpty()) {
+            NetworkHandler.CHANNEL.sendToServer(new ServerboundCatalogueRequestPacket(ServerboundCatalogueRequestPacket.Catalogue.LOOT_TABLES));
+        }
+        WAITING.add(callback);
     }
 
     public static Set<ResourceLocation> getLootTables() {
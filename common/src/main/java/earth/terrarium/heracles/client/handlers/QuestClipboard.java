@@ -15,6 +15,7 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screens.Screen;
 import org.joml.Vector2i;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -25,6 +26,7 @@ public class QuestClipboard {
 
     private Quest quest;
     private String key;
+    private List<String> description = List.of();
 
     public boolean action(int keyCode, SelectQuestWidget widget) {
         if (Screen.isCut(keyCode) && widget.entry() != null) {
@@ -64,12 +66,17 @@ public class QuestClipboard {
     public void action(QuestsWidget widget, ClientQuests.QuestEntry entry, QuestAction action) {
         this.quest = null;
         this.key = null;
+        this.description = List.of();
         switch (action) {
             case CUT -> {
                 this.quest = entry.value();
                 this.key = entry.key();
                 if (this.quest.display().groups().size() == 1) {
-                    ClientQuestNetworking.remove(entry.key());
+                    // The description is needed to paste the quest again, so it is only removed once that is loaded.
+                    ClientQuestDescriptions.get(entry.key(), description -> {
+                        copyDescription(entry.value(), description);
+                        ClientQuestNetworking.remove(entry.key());
+                    });
                 } else {
                     ClientQuests.updateQuest(entry, quest -> {
                         quest.display().groups().remove(widget.group());
@@ -81,11 +88,19 @@ public class QuestClipboard {
             case COPY -> {
                 this.quest = entry.value();
                 this.key = entry.key();
+                ClientQuestDescriptions.get(entry.key(), description -> copyDescription(entry.value(), description));
             }
             default -> throw new IllegalStateException("Unexpected value: " + action);
         }
     }
 
+    private void copyDescription(Quest quest, List<String> description) {
+        // Only kept if the quest wasn't replaced by another copy while the description was loading.
+        if (this.quest == quest) {
+            this.description = description;
+        }
+    }
+
     public void paste(QuestsWidget widget, TextInputModal<MouseClick> modal, Consumer<ClientQuests.QuestEntry> callback) {
         if (this.quest != null) {
             if (this.key != null) {
@@ -117,7 +132,7 @@ public class QuestClipboard {
                     quest.display().iconBackground(),
                     quest.display().title(),
                     quest.display().subtitle(),
-                    quest.display().description(),
+                    this.description,
                     Util.make(quest.display().groups(), groups ->
                         groups.put(group, new GroupDisplay(group, new Vector2i((int) local.x() - 12, (int) local.y() - 12)))
                     )
@@ -30,7 +30,7 @@ public class QuestTutorial {
         if (Minecraft.getInstance().level == null) return;
         var gameMode = Minecraft.getInstance().gameMode;
         if (gameMode != null && gameMode.getPlayerMode() == GameType.SURVIVAL) {
-            boolean hasQuests = !ClientQuests.entries().isEmpty();
+            boolean hasQuests = ClientQuestSync.hasQuests();
             if (DisplayConfig.showTutorial && toast == null && hasQuests) {
                 showTutorial();
             }
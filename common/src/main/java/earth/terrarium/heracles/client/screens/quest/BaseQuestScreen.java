@@ -3,6 +3,7 @@ package earth.terrarium.heracles.client.screens.quest;
 import com.mojang.blaze3d.systems.RenderSystem;
 import earth.terrarium.heracles.api.client.theme.EditorTheme;
 import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.client.handlers.ClientQuestDescriptions;
 import earth.terrarium.heracles.client.handlers.ClientQuests;
 import earth.terrarium.heracles.client.screens.AbstractQuestScreen;
 import earth.terrarium.heracles.client.widgets.SelectableTabButton;
@@ -47,8 +48,18 @@ public abstract class BaseQuestScreen extends AbstractQuestScreen<QuestContent>
     public BaseQuestScreen(QuestContent content) {
         super(content, Optionull.mapOrDefault(quest(content), quest -> quest.display().title(), CommonComponents.EMPTY));
         ClientQuests.mergeProgress(Map.of(content.id(), content.progress()));
+        ClientQuestDescriptions.request(content.id(), content.fromGroup(), description -> {
+            if (Minecraft.getInstance().screen == this) {
+                onDescriptionLoaded();
+            }
+        });
     }
 
+    /**
+     * Called when the description arrives after the screen was opened.
+     */
+    protected void onDescriptionLoaded() {}
+
     public void updateProgress(@Nullable QuestProgress newProgress) {
         if (newProgress != null) {
             this.content.progress().copyFrom(newProgress);
@@ -9,6 +9,7 @@ import earth.terrarium.heracles.api.rewards.QuestRewards;
 import earth.terrarium.heracles.api.tasks.QuestTask;
 import earth.terrarium.heracles.api.tasks.QuestTaskType;
 import earth.terrarium.heracles.api.tasks.QuestTasks;
+import earth.terrarium.heracles.client.handlers.ClientQuestDescriptions;
 import earth.terrarium.heracles.client.handlers.ClientQuests;
 import earth.terrarium.heracles.client.screens.quest.editing.QuestMultiLineEditBox;
 import earth.terrarium.heracles.client.screens.quest.rewards.RewardListWidget;
@@ -159,7 +160,7 @@ public class QuestEditScreen extends BaseQuestScreen {
         }
 
         this.descriptionBox = new QuestMultiLineEditBox(contentX, contentY, contentWidth, contentHeight);
-        this.descriptionBox.setValue(String.join("\n", this.quest().display().description()).replace("§", "&&"));
+        this.descriptionBox.setValue(String.join("\n", ClientQuestDescriptions.description(getQuestId())).replace("§", "&&"));
 
         if (Minecraft.getInstance().isLocalServer()) {
             addRenderableWidget(new ImageButton(this.width - 36, 1, 11, 11, 33, 59, 11, HEADING, 256, 256, (button) -> {
@@ -228,12 +229,17 @@ public class QuestEditScreen extends BaseQuestScreen {
         saveDescription();
     }
 
+    @Override
+    protected void onDescriptionLoaded() {
+        this.descriptionBox.setValue(String.join("\n", ClientQuestDescriptions.description(getQuestId())).replace("§", "&&"));
+    }
+
     private void saveDescription() {
-        ClientQuests.updateQuest(
-            entry(),
-            quest -> NetworkQuestData.builder().description(List.of(this.descriptionBox.getValue().split("\n"))),
-            false
-        );
+        // Saving before the description arrived would replace it with the empty box.
+        if (!ClientQuestDescriptions.isLoaded(getQuestId())) return;
+        List<String> description = List.of(this.descriptionBox.getValue().split("\n"));
+        ClientQuestDescriptions.markLoaded(getQuestId(), description);
+        ClientQuests.updateQuest(entry(), quest -> NetworkQuestData.builder().description(description), false);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package earth.terrarium.heracles.client.screens.quest;
 
 import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.client.handlers.ClientQuestDescriptions;
 import earth.terrarium.heracles.client.screens.quest.rewards.RewardListWidget;
 import earth.terrarium.heracles.client.screens.quest.tasks.TaskListWidget;
 import earth.terrarium.heracles.common.constants.ConstantComponents;
@@ -53,13 +54,7 @@ public class QuestScreen extends BaseQuestScreen {
 
         this.taskList = new TaskListWidget(contentX, CONTENT_Y, questContentWidth, contentHeight, 5.0D, 5.0D, this.content.id(), this.entry(), this.content.progress(), this.content.quests(), null, null);
         this.rewardList = new RewardListWidget(contentX, CONTENT_Y, questContentWidth, contentHeight, 5.0D, 5.0D, this.entry(), this.content.progress(), null, null);
-        try {
-            this.descriptionError = null;
-            this.desc = String.join("", MarkdownParser.parse(this.quest().display().description()));
-        } catch (Throwable e) {
-            this.descriptionError = e.getMessage();
-            Heracles.LOGGER.error("Error parsing quest description: ", e);
-        }
+        parseDescription();
         if (Minecraft.getInstance().player != null && Minecraft.getInstance().player.hasPermissions(2)) {
             addRenderableWidget(new ImageButton(this.width - 24, 1, 11, 11, 33, 15, 11, HEADING, 256, 256, (button) ->
                 NetworkHandler.CHANNEL.sendToServer(new OpenQuestPacket(this.content.fromGroup(), this.content.id(), true))
@@ -68,6 +63,22 @@ public class QuestScreen extends BaseQuestScreen {
         updateProgress(null);
     }
 
+    @Override
+    protected void onDescriptionLoaded() {
+        parseDescription();
+        updateProgress(null);
+    }
+
+    private void parseDescription() {
+        try {
+            this.descriptionError = null;
+            this.desc = String.join("", MarkdownParser.parse(ClientQuestDescriptions.description(getQuestId())));
+        } catch (Throwable e) {
+            this.descriptionError = e.getMessage();
+            Heracles.LOGGER.error("Error parsing quest description: ", e);
+        }
+    }
+
     private void calculateContentArea() {
         contentX = (int) (questContentCenter() - (questContentWidth / 2f) + 0.5f);
         contentHeight = this.height - 15;
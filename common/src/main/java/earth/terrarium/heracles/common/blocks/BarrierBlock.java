@@ -2,6 +2,7 @@ package earth.terrarium.heracles.common.blocks;
 
 import earth.terrarium.heracles.common.regisitries.ModItems;
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.block.BaseEntityBlock;
 import net.minecraft.world.level.block.entity.BlockEntity;
@@ -23,9 +24,10 @@ public class BarrierBlock extends BaseEntityBlock {
     @Override
     @SuppressWarnings("deprecation")
     public @NotNull VoxelShape getCollisionShape(BlockState state, BlockGetter level, BlockPos pos, CollisionContext context) {
-        if (context instanceof EntityCollisionContext entityContext) {
+        // Only players can pass through, so other entities don't need the block entity looked up.
+        if (context instanceof EntityCollisionContext entityContext && entityContext.getEntity() instanceof Player player) {
             if (level.getBlockEntity(pos) instanceof BarrierBlockEntity barrier) {
-                if (barrier.canPassthrough(entityContext.getEntity())) {
+                if (barrier.canPassthrough(player)) {
                     return Shapes.empty();
                 }
             }
@@ -1,9 +1,8 @@
 package earth.terrarium.heracles.common.blocks;
 
 import earth.terrarium.heracles.client.handlers.ClientQuests;
+import earth.terrarium.heracles.common.handlers.progress.BarrierCache;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
-import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
-import earth.terrarium.heracles.common.handlers.progress.QuestsProgress;
 import earth.terrarium.heracles.common.regisitries.ModBlocks;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
@@ -36,12 +35,7 @@ public class BarrierBlockEntity extends BlockEntity {
         Level level = this.getLevel();
         if (level == null) return false;
         if (entity instanceof ServerPlayer player) {
-            QuestsProgress progress = QuestProgressHandler.getProgress(player.server, player.getUUID());
-            for (String quest : this.quests) {
-                if (progress.isComplete(quest)) {
-                    return true;
-                }
-            }
+            return BarrierCache.canPassthrough(player, this.quests);
         } else if (level.isClientSide) {
             for (String quest : this.quests) {
                 QuestProgress progress = ClientQuests.getProgress(quest);
@@ -32,6 +32,8 @@ public class ModCommands {
             .then(ResetCommand.resetAll())
             .then(CompleteCommand.complete())
             .then(BarrierCommand.barrier())
+            .then(ProgressCommand.progress())
+            .then(PerfCommand.perf())
             .then(Commands.literal("dummy")
                 .requires(source -> source.hasPermission(2))
                 .then(Commands.argument("id", StringArgumentType.string())
@@ -0,0 +1,69 @@
+package earth.terrarium.heracles.common.commands;
+
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import earth.terrarium.heracles.common.handlers.metrics.PerformanceMetrics;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class PerfCommand {
+
+    public static LiteralArgumentBuilder<CommandSourceStack> perf() {
+        return Commands.literal("perf")
+            .requires(source -> source.hasPermission(2))
+            .executes(PerfCommand::show)
+            .then(Commands.literal("enable")
+                .executes(context -> setEnabled(context, true))
+            )
+            .then(Commands.literal("disable")
+                .executes(context -> setEnabled(context, false))
+            )
+            .then(Commands.literal("reset")
+                .executes(PerfCommand::reset)
+            )
+            .then(Commands.literal("dump")
+                .executes(PerfCommand::dump)
+            );
+    }
+
+    private static int show(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        if (!PerformanceMetrics.isEnabled()) {
+            source.sendFailure(Component.translatable("commands.heracles.perf.off"));
+            return 0;
+        }
+        List<String> lines = PerformanceMetrics.lines();
+        source.sendSuccess(() -> Component.translatable("commands.heracles.perf.header", PerformanceMetrics.seconds()), false);
+        for (String line : lines) {
+            source.sendSuccess(() -> Component.literal(line), false);
+        }
+        return lines.size();
+    }
+
+    private static int setEnabled(CommandContext<CommandSourceStack> context, boolean enabled) {
+        PerformanceMetrics.setEnabled(enabled);
+        context.getSource().sendSuccess(() -> Component.translatable("commands.heracles.perf." + (enabled ? "enable" : "disable")), true);
+        return 1;
+    }
+
+    private static int reset(CommandContext<CommandSourceStack> context) {
+        PerformanceMetrics.reset();
+        context.getSource().sendSuccess(() -> Component.translatable("commands.heracles.perf.reset"), true);
+        return 1;
+    }
+
+    private static int dump(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        Path path = PerformanceMetrics.dump();
+        if (path == null) {
+            source.sendFailure(Component.translatable("commands.heracles.perf.dump.failed"));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.translatable("commands.heracles.perf.dump.success", path.toString()), false);
+        return 1;
+    }
+}
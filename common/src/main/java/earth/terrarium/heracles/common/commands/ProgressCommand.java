@@ -0,0 +1,57 @@
+package earth.terrarium.heracles.common.commands;
+
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+
+public class ProgressCommand {
+
+    public static LiteralArgumentBuilder<CommandSourceStack> progress() {
+        return Commands.literal("progress")
+            .requires(source -> source.hasPermission(4))
+            .then(Commands.literal("migrate")
+                .executes(ProgressCommand::migrate)
+            )
+            .then(Commands.literal("completed")
+                .then(Commands.argument("quest", StringArgumentType.string())
+                    .suggests(ModCommands.QUESTS)
+                    .executes(ProgressCommand::completed)
+                )
+            );
+    }
+
+    private static int migrate(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        MinecraftServer server = source.getServer();
+        source.sendSuccess(() -> Component.translatable("commands.heracles.progress.migrate.started"), true);
+        QuestProgressHandler.read(server).migrate().whenComplete((migrated, error) -> server.execute(() -> {
+            if (error != null) {
+                Heracles.LOGGER.error("Failed to migrate quest progress", error);
+                source.sendFailure(Component.translatable("commands.heracles.progress.migrate.failed"));
+            } else {
+                source.sendSuccess(() -> Component.translatable("commands.heracles.progress.migrate.success", migrated), true);
+            }
+        }));
+        return 1;
+    }
+
+    private static int completed(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        String quest = StringArgumentType.getString(context, "quest");
+        try {
+            int count = QuestProgressHandler.read(source.getServer()).countCompleted(quest);
+            source.sendSuccess(() -> Component.translatable("commands.heracles.progress.completed", quest, count), false);
+            return count;
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Failed to count completions of quest {}", quest, e);
+            source.sendFailure(Component.translatable("commands.heracles.progress.completed.failed", quest));
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package earth.terrarium.heracles.common.handlers;
+
+import com.google.gson.JsonObject;
+import com.teamresourceful.resourcefullib.common.lib.Constants;
+import earth.terrarium.heracles.Heracles;
+import net.minecraft.util.GsonHelper;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+public class ServerConfig {
+
+    private static final String SERVER_FILE = "server_options.json";
+
+    private static Path lastPath;
+
+    public static boolean questCache = false;
+    public static boolean watchQuests = false;
+    public static int progressIdleSeconds = 600;
+    public static int progressCacheSize = 256;
+    public static String progressStorage = "files";
+    public static String progressDatabaseUrl = "";
+    public static String progressDatabaseDriver = "";
+    public static boolean metrics = false;
+    public static int metricsDumpSeconds = 0;
+
+    public static void load(Path path) {
+        ServerConfig.lastPath = path;
+        File serverFile = path.resolve(SERVER_FILE).toFile();
+        try {
+            if (serverFile.exists()) {
+                String serverString = FileUtils.readFileToString(serverFile, StandardCharsets.UTF_8);
+                JsonObject serverObject = Constants.PRETTY_GSON.fromJson(serverString, JsonObject.class);
+                questCache = GsonHelper.getAsBoolean(serverObject, "questCache", false);
+                watchQuests = GsonHelper.getAsBoolean(serverObject, "watchQuests", false);
+                progressIdleSeconds = GsonHelper.getAsInt(serverObject, "progressIdleSeconds", 600);
+                progressCacheSize = GsonHelper.getAsInt(serverObject, "progressCacheSize", 256);
+                progressStorage = GsonHelper.getAsString(serverObject, "progressStorage", "files");
+                progressDatabaseUrl = GsonHelper.getAsString(serverObject, "progressDatabaseUrl", "");
+                progressDatabaseDriver = GsonHelper.getAsString(serverObject, "progressDatabaseDriver", "");
+                metrics = GsonHelper.getAsBoolean(serverObject, "metrics", false);
+                metricsDumpSeconds = GsonHelper.getAsInt(serverObject, "metricsDumpSeconds", 0);
+            }
+            save();
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Error parsing {}:", SERVER_FILE, e);
+        }
+    }
+
+    public static void save() {
+        if (lastPath == null) return;
+        File serverFile = lastPath.resolve(SERVER_FILE).toFile();
+        JsonObject serverObject = new JsonObject();
+        serverObject.addProperty("questCache", questCache);
+        serverObject.addProperty("watchQuests", watchQuests);
+        serverObject.addProperty("progressIdleSeconds", progressIdleSeconds);
+        serverObject.addProperty("progressCacheSize", progressCacheSize);
+        serverObject.addProperty("progressStorage", progressStorage);
+        serverObject.addProperty("progressDatabaseUrl", progressDatabaseUrl);
+        serverObject.addProperty("progressDatabaseDriver", progressDatabaseDriver);
+        serverObject.addProperty("metrics", metrics);
+        serverObject.addProperty("metricsDumpSeconds", metricsDumpSeconds);
+        try {
+            FileUtils.write(serverFile, Constants.PRETTY_GSON.toJson(serverObject), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Error saving {}:", SERVER_FILE, e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package earth.terrarium.heracles.common.handlers.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder events for the work Heracles does on the server, so it shows up as its own events
+ * instead of being hidden in the frames of whatever triggered it.
+ * <p>
+ * The events are created and begun before the work and only filled in when {@link Event#shouldCommit()} is true,
+ * when recording is off this costs next to nothing.
+ */
+public final class FlightRecorderEvents {
+
+    private static final String CATEGORY = "Heracles";
+
+    @Name("heracles.QuestLoad")
+    @Label("Quest Load")
+    @Description("Reading, parsing and decoding all quest files")
+    @Category(CATEGORY)
+    public static class QuestLoad extends Event {
+
+        @Label("Files")
+        public int files;
+
+        @Label("Quests")
+        public int quests;
+
+        @Label("Cached")
+        @Description("Quests decoded from the quest cache")
+        public int cached;
+
+        @Label("Failed")
+        public int failed;
+    }
+
+    @Name("heracles.ProgressEvaluation")
+    @Label("Progress Evaluation")
+    @Description("Testing an event against the tasks of a player")
+    @Category(CATEGORY)
+    public static class ProgressEvaluation extends Event {
+
+        @Label("Player")
+        public String player;
+
+        @Label("Task Type")
+        public String taskType;
+
+        @Label("Tasks")
+        @Description("Tasks the event was tested against")
+        public int tasks;
+
+        @Label("Quests")
+        @Description("Quests whose progress changed")
+        public int quests;
+    }
+
+    @Name("heracles.UnlockUpdate")
+    @Label("Unlock Update")
+    @Description("Updating the quests a player can progress")
+    @Category(CATEGORY)
+    public static class UnlockUpdate extends Event {
+
+        @Label("Player")
+        public String player;
+
+        @Label("Full")
+        @Description("Whether the quests were rebuilt from scratch instead of updated from the changed quests")
+        public boolean full;
+
+        @Label("Changed")
+        public int changed;
+
+        @Label("Unlocked")
+        public int unlocked;
+
+        @Label("Completable")
+        public int completable;
+    }
+
+    @Name("heracles.TeamSync")
+    @Label("Team Sync")
+    @Description("Sharing changed progress with the team of a player")
+    @Category(CATEGORY)
+    public static class TeamSync extends Event {
+
+        @Label("Player")
+        public String player;
+
+        @Label("Members")
+        public int members;
+
+        @Label("Quests")
+        public int quests;
+    }
+
+    @Name("heracles.JoinSync")
+    @Label("Join Sync")
+    @Description("Syncing the quests and progress to a joining player")
+    @Category(CATEGORY)
+    public static class JoinSync extends Event {
+
+        @Label("Player")
+        public String player;
+
+        @Label("Quests")
+        public int quests;
+
+        @Label("Groups")
+        public int groups;
+    }
+
+    @Name("heracles.ProgressSave")
+    @Label("Progress Save")
+    @Description("Saving the changed quest progress")
+    @Category(CATEGORY)
+    public static class ProgressSave extends Event {
+
+        @Label("Players")
+        public int players;
+
+        @Label("Quests")
+        public int quests;
+
+        @Label("Unloaded")
+        @Description("Offline players unloaded after saving")
+        public int unloaded;
+    }
+}
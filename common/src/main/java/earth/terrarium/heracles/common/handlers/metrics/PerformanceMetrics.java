@@ -0,0 +1,227 @@
+package earth.terrarium.heracles.common.handlers.metrics;
+
+import com.google.gson.JsonObject;
+import com.teamresourceful.resourcefullib.common.lib.Constants;
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketType;
+import com.teamresourceful.resourcefullib.common.network.base.PacketType;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.common.handlers.ServerConfig;
+import io.netty.buffer.Unpooled;
+import net.minecraft.Util;
+import net.minecraft.network.FriendlyByteBuf;
+import org.apache.commons.io.FileUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms for the work Heracles does on the server, collected only while enabled
+ * so the hot paths only pay for a field read otherwise.
+ */
+public final class PerformanceMetrics {
+
+    private static final String DUMP_FILE = "metrics.json";
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+
+    private static volatile boolean enabled;
+    private static volatile long since = System.nanoTime();
+    private static int ticks;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        if (enabled && !PerformanceMetrics.enabled) {
+            reset();
+        }
+        PerformanceMetrics.enabled = enabled;
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+        HISTOGRAMS.clear();
+        since = System.nanoTime();
+    }
+
+    public static void count(String name) {
+        count(name, 1);
+    }
+
+    public static void count(String name, long amount) {
+        if (!enabled) return;
+        COUNTERS.computeIfAbsent(name, k -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Records a value that isn't a duration, like the number of tasks an event looked at.
+     */
+    public static void record(String name, long value) {
+        if (!enabled) return;
+        HISTOGRAMS.computeIfAbsent(name, k -> new Histogram(false)).record(value);
+    }
+
+    /**
+     * Gets the start time to pass to {@link #stop(String, long)}, or 0 when the metrics are disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void stop(String name, long start) {
+        if (!enabled || start == 0) return;
+        HISTOGRAMS.computeIfAbsent(name, k -> new Histogram(true)).record(System.nanoTime() - start);
+    }
+
+    /**
+     * Counts a packet sent to the given number of players, the size is measured by encoding the packet once more.
+     */
+    public static <T extends Packet<T>> void packet(T packet, int players) {
+        if (!enabled || players <= 0) return;
+        PacketType<T> type = packet.type();
+        String id = type.id().toString();
+        count("packets." + id, players);
+        if (type instanceof ClientboundPacketType<T> clientbound) {
+            FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+            try {
+                clientbound.encode(packet, buffer);
+                count("packet_bytes." + id, (long) buffer.readableBytes() * players);
+            } finally {
+                buffer.release();
+            }
+        }
+    }
+
+    /**
+     * Writes the metrics to the config folder every {@link ServerConfig#metricsDumpSeconds} seconds while they are enabled.
+     */
+    public static void tick() {
+        if (!enabled || ServerConfig.metricsDumpSeconds <= 0) return;
+        if (++ticks < ServerConfig.metricsDumpSeconds * 20) return;
+        ticks = 0;
+        JsonObject json = toJson();
+        Util.ioPool().execute(() -> write(json));
+    }
+
+    public static Path dump() {
+        return write(toJson());
+    }
+
+    private static Path write(JsonObject json) {
+        Path path = Heracles.getConfigPath().resolve(Heracles.MOD_ID).resolve(DUMP_FILE);
+        try {
+            FileUtils.write(path.toFile(), Constants.PRETTY_GSON.toJson(json), StandardCharsets.UTF_8);
+            return path;
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Failed to write {}", DUMP_FILE, e);
+            return null;
+        }
+    }
+
+    public static long seconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - since);
+    }
+
+    public static JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("seconds", seconds());
+        JsonObject counters = new JsonObject();
+        COUNTERS.forEach((name, counter) -> counters.addProperty(name, counter.sum()));
+        json.add("counters", counters);
+        JsonObject histograms = new JsonObject();
+        HISTOGRAMS.forEach((name, histogram) -> histograms.add(name, histogram.toJson()));
+        json.add("histograms", histograms);
+        return json;
+    }
+
+    /**
+     * Gets a line for each metric, sorted by name.
+     */
+    public static List<String> lines() {
+        List<String> lines = new ArrayList<>();
+        long seconds = Math.max(1, seconds());
+        COUNTERS.forEach((name, counter) -> {
+            long sum = counter.sum();
+            lines.add(String.format("%s: %d (%.1f/s)", name, sum, sum / (double) seconds));
+        });
+        HISTOGRAMS.forEach((name, histogram) -> lines.add(name + ": " + histogram));
+        return lines;
+    }
+
+    /**
+     * A histogram with power of two buckets, percentiles are reported as the upper bound of their bucket.
+     */
+    private static class Histogram {
+
+        private final boolean time;
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Histogram(boolean time) {
+            this.time = time;
+        }
+
+        private void record(long value) {
+            value = Math.max(0, value);
+            // Bucket i holds the values below 2^i that don't fit in a smaller bucket.
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        private long percentile(double percentile) {
+            long count = this.count.sum();
+            if (count == 0) return 0;
+            long target = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target) {
+                    return Math.min(i == 0 ? 0 : (1L << i) - 1, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        private JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            long count = this.count.sum();
+            json.addProperty("unit", time ? "ns" : "count");
+            json.addProperty("count", count);
+            json.addProperty("mean", count == 0 ? 0 : sum.sum() / count);
+            json.addProperty("p50", percentile(0.5));
+            json.addProperty("p95", percentile(0.95));
+            json.addProperty("p99", percentile(0.99));
+            json.addProperty("max", max.get());
+            return json;
+        }
+
+        private String format(long value) {
+            return time ? String.format("%.3fms", value / 1_000_000D) : Long.toString(value);
+        }
+
+        @Override
+        public String toString() {
+            long count = this.count.sum();
+            return String.format(
+                "%d samples, mean %s, p50 %s, p95 %s, p99 %s, max %s",
+                count, format(count == 0 ? 0 : sum.sum() / count),
+                format(percentile(0.5)), format(percentile(0.95)), format(percentile(0.99)), format(max.get())
+            );
+        }
+    }
+}
@@ -4,6 +4,7 @@ import earth.terrarium.heracles.api.quests.Quest;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
 import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
+import earth.terrarium.heracles.common.handlers.syncing.ProgressOutbox;
 import earth.terrarium.heracles.common.network.NetworkHandler;
 import earth.terrarium.heracles.common.network.packets.pinned.SyncPinnedQuestsPacket;
 import net.minecraft.nbt.CompoundTag;
@@ -24,24 +25,22 @@ public class PinnedQuestHandler extends SavedData {
         return read(player.server).pinned.computeIfAbsent(player.getUUID(), u -> new LinkedHashSet<>());
     }
 
-    public static void syncIfChanged(ServerPlayer player, Collection<String> pinned) {
-        Set<String> pinnedSet = getPinned(player);
-        for (String s : pinned) {
-            if (!pinnedSet.contains(s)) {
-                sync(player);
-                return;
-            }
-        }
+    public static void syncIfChanged(ServerPlayer player, Collection<String> changed) {
+        ProgressOutbox.pinned(player, changed);
     }
 
     public static void sync(ServerPlayer player) {
+        NetworkHandler.sendToPlayer(createSyncPacket(player), player);
+    }
+
+    public static SyncPinnedQuestsPacket createSyncPacket(ServerPlayer player) {
         Map<String, QuestProgress> pinned = new LinkedHashMap<>();
         getPinned(player).forEach(id -> {
             Quest quest = QuestHandler.get(id);
             if (quest == null) return;
             pinned.put(id, QuestProgressHandler.getProgress(player.server, player.getUUID()).getProgress(id));
         });
-        NetworkHandler.CHANNEL.sendToPlayer(new SyncPinnedQuestsPacket(pinned), player);
+        return new SyncPinnedQuestsPacket(pinned);
     }
 
     @Override
@@ -0,0 +1,51 @@
+package earth.terrarium.heracles.common.handlers.progress;
+
+import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Caches whether a player can pass through barriers with a given set of quests, as collision is checked far more often
+ * than the progress changes.
+ * <p>
+ * Completing a quest can complete it for the whole team through shared progress, so completions clear the cache of
+ * every player while resets, which only affect the player being reset, clear only that player's cache.
+ */
+public final class BarrierCache {
+
+    private static final Map<UUID, Map<Set<String>, Boolean>> CACHE = new HashMap<>();
+    private static int revision = -1;
+
+    public static boolean canPassthrough(ServerPlayer player, Set<String> quests) {
+        if (quests.isEmpty()) return false;
+        if (revision != QuestHandler.revision()) {
+            revision = QuestHandler.revision();
+            CACHE.clear();
+        }
+        Map<Set<String>, Boolean> barriers = CACHE.computeIfAbsent(player.getUUID(), uuid -> new HashMap<>());
+        Boolean cached = barriers.get(quests);
+        if (cached != null) return cached;
+        QuestsProgress progress = QuestProgressHandler.getProgress(player.server, player.getUUID());
+        boolean passthrough = false;
+        for (String quest : quests) {
+            if (progress.isComplete(quest)) {
+                passthrough = true;
+                break;
+            }
+        }
+        barriers.put(Set.copyOf(quests), passthrough);
+        return passthrough;
+    }
+
+    public static void invalidate(UUID player) {
+        CACHE.remove(player);
+    }
+
+    public static void invalidate() {
+        CACHE.clear();
+    }
+}
@@ -11,57 +11,86 @@ import java.util.*;
 
 public class QuestProgress {
 
-    private final Map<String, TaskProgress<?>> tasks = new HashMap<>();
+    // The tasks and completion can be shared by the progress of each team member, claimed rewards are always per player.
+    private State state;
     private final Set<String> claimed = new HashSet<>();
-    private boolean complete;
 
     public QuestProgress() {
-        this.complete = false;
+        this.state = new State();
     }
 
     public QuestProgress(Quest quest, CompoundTag tag) {
+        this();
         if (tag == null) return;
-        this.complete = tag.getBoolean("complete");
+        this.state.complete = tag.getBoolean("complete");
         this.claimed.addAll(TagUtils.mapToCollection(ArrayList::new, tag.getList("rewards", 8), Tag::getAsString));
         var compound = tag.getCompound("tasks");
         for (String taskKey : compound.getAllKeys()) {
             if (!quest.tasks().containsKey(taskKey)) continue;
             CompoundTag task = compound.getCompound(taskKey);
-            tasks.put(taskKey, new TaskProgress<>(task.get("progress"), quest.tasks().get(taskKey).storage()::createDefault, task.getBoolean("complete")));
+            this.state.tasks.put(taskKey, new TaskProgress<>(task.get("progress"), quest.tasks().get(taskKey).storage()::createDefault, task.getBoolean("complete")));
         }
     }
 
     public QuestProgress(boolean complete, Set<String> claimed, Map<String, TaskProgress<?>> tasks) {
-        this.complete = complete;
+        this();
+        this.state.complete = complete;
         this.claimed.addAll(claimed);
-        this.tasks.putAll(tasks);
+        this.state.tasks.putAll(tasks);
+    }
+
+    private QuestProgress(State state, Set<String> claimed) {
+        this.state = state;
+        this.claimed.addAll(claimed);
+    }
+
+    /**
+     * Creates progress that shares the tasks and completion of this progress but has its own claimed rewards,
+     * changes to the tasks of either are seen by both.
+     */
+    public QuestProgress share(Set<String> claimed) {
+        return new QuestProgress(this.state, claimed);
+    }
+
+    public boolean isSharedWith(QuestProgress progress) {
+        return this.state == progress.state;
+    }
+
+    /**
+     * Stops sharing the tasks and completion with any other progress by giving this progress its own copy of them.
+     */
+    public void detach() {
+        State state = new State();
+        state.complete = this.state.complete;
+        this.state.tasks.forEach((id, task) -> state.tasks.put(id, task.copy()));
+        this.state = state;
     }
 
     public void update(Quest quest) {
-        if (complete) return;
+        if (state.complete) return;
         for (QuestTask<?, ?, ?> task : quest.tasks().values()) {
-            if (!tasks.containsKey(task.id())) {
-                tasks.put(task.id(), new TaskProgress<>(task));
+            if (!state.tasks.containsKey(task.id())) {
+                state.tasks.put(task.id(), new TaskProgress<>(task));
             }
         }
         checkComplete();
     }
 
     public void checkComplete() {
-        for (TaskProgress<?> task : tasks.values()) {
+        for (TaskProgress<?> task : state.tasks.values()) {
             if (!task.isComplete()) {
                 return;
             }
         }
-        complete = true;
+        state.complete = true;
     }
 
     public boolean isComplete() {
-        return complete;
+        return state.complete;
     }
 
     public void setComplete(boolean complete) {
-        this.complete = complete;
+        this.state.complete = complete;
     }
 
     public void claimReward(String reward) {
@@ -69,11 +98,11 @@ public class QuestProgress {
     }
 
     public void reset() {
-        for (TaskProgress<?> taskProgress : tasks.values()) {
+        for (TaskProgress<?> taskProgress : state.tasks.values()) {
             taskProgress.reset();
         }
         claimed.clear();
-        complete = false;
+        state.complete = false;
     }
 
     public Set<String> claimedRewards() {
@@ -85,33 +114,33 @@ public class QuestProgress {
     }
 
     public boolean canClaim(String reward) {
-        return !claimed.contains(reward) && complete;
+        return !claimed.contains(reward) && state.complete;
     }
 
     @SuppressWarnings("unchecked")
     public <T extends Tag> TaskProgress<T> getTask(QuestTask<?, T, ?> task) {
-        return (TaskProgress<T>) this.tasks.computeIfAbsent(task.id(), s -> new TaskProgress<>(task));
+        return (TaskProgress<T>) this.state.tasks.computeIfAbsent(task.id(), s -> new TaskProgress<>(task));
     }
 
     public Map<String, TaskProgress<?>> tasks() {
-        return this.tasks;
+        return this.state.tasks;
     }
 
     public void copyFrom(QuestProgress progress) {
         claimed.clear();
         claimed.addAll(progress.claimed);
-        tasks.clear();
-        tasks.putAll(progress.tasks);
-        complete = progress.complete;
+        state.tasks.clear();
+        state.tasks.putAll(progress.state.tasks);
+        state.complete = progress.state.complete;
         checkComplete();
     }
 
     public CompoundTag save() {
         CompoundTag tag = new CompoundTag();
-        tag.putBoolean("complete", complete);
+        tag.putBoolean("complete", state.complete);
         tag.put("rewards", TagUtils.mapToListTag(claimed, StringTag::valueOf));
         CompoundTag tasks = new CompoundTag();
-        for (var entry : this.tasks.entrySet()) {
+        for (var entry : this.state.tasks.entrySet()) {
             CompoundTag task = new CompoundTag();
             task.put("progress", entry.getValue().progress());
             task.putBoolean("complete", entry.getValue().isComplete());
@@ -120,4 +149,10 @@ public class QuestProgress {
         tag.put("tasks", tasks);
         return tag;
     }
+
+    private static class State {
+
+        private final Map<String, TaskProgress<?>> tasks = new HashMap<>();
+        private boolean complete;
+    }
 }
@@ -4,22 +4,64 @@ import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.api.events.HeraclesEvents;
 import earth.terrarium.heracles.api.quests.Quest;
 import earth.terrarium.heracles.api.teams.TeamProviders;
+import earth.terrarium.heracles.common.handlers.ServerConfig;
+import earth.terrarium.heracles.common.handlers.metrics.FlightRecorderEvents;
+import earth.terrarium.heracles.common.handlers.metrics.PerformanceMetrics;
+import earth.terrarium.heracles.common.handlers.progress.storage.FileProgressStorage;
+import earth.terrarium.heracles.common.handlers.progress.storage.ProgressStorage;
 import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
+import earth.terrarium.heracles.common.handlers.syncing.ProgressOutbox;
 import earth.terrarium.heracles.common.network.NetworkHandler;
 import earth.terrarium.heracles.common.network.packets.quests.SyncQuestProgressPacket;
+import earth.terrarium.heracles.common.network.packets.quests.SyncTaskProgressPacket;
+import net.minecraft.Util;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.TickTask;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.storage.LevelResource;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Holds the quest progress of players, the progress is persisted in a {@link ProgressStorage}
+ * and only players whose progress changed since the last save are written.
+ * <p>
+ * Players are loaded when their progress is first accessed, offline players are unloaded again on save once they
+ * have been idle for longer than {@link ServerConfig#progressIdleSeconds} or more than {@link ServerConfig#progressCacheSize} are loaded.
+ */
 public class QuestProgressHandler extends SavedData {
 
-    private final Map<UUID, QuestsProgress> progress = new HashMap<>();
+    private static final int MIGRATE_BATCH_SIZE = 32;
 
-    public QuestProgressHandler() {
+    @Nullable
+    private static ProgressStorage openStorage;
+
+    // Access ordered so the least recently used players are unloaded first.
+    private final Map<UUID, QuestsProgress> progress = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, Long> lastAccess = new HashMap<>();
+    // Players whose progress failed to load, they are never saved so the progress in the storage isn't replaced.
+    private final Set<UUID> failedLoads = new HashSet<>();
+    // Players imported from the legacy saved data file that haven't been saved to the storage yet.
+    private final Set<UUID> imported = new HashSet<>();
+    // Set while files are copied to the storage, players that aren't copied yet are loaded from their files meanwhile.
+    private boolean migrating;
+    private final MinecraftServer server;
+    private final Path dataPath;
+    private final ProgressStorage storage;
+
+    public QuestProgressHandler(MinecraftServer server, Path dataPath) {
+        this.server = server;
+        this.dataPath = dataPath;
+        closeStorage();
+        this.storage = ProgressStorage.create(dataPath);
+        QuestProgressHandler.openStorage = this.storage;
         HeraclesEvents.QuestCompleteListener.register(it -> {
             if (it.quest().settings().autoClaimRewards()) {
                 // For avoiding the reward trigger the task checking again.
@@ -32,7 +74,28 @@ public class QuestProgressHandler extends SavedData {
     }
 
     public QuestsProgress getProgress(UUID uuid) {
-        return progress.computeIfAbsent(uuid, u -> new QuestsProgress(new HashMap<>()));
+        lastAccess.put(uuid, Util.getMillis());
+        QuestsProgress loaded = progress.get(uuid);
+        if (loaded == null) {
+            loaded = loadPlayer(uuid);
+            progress.put(uuid, loaded);
+            shareWithTeam(uuid, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Shares the progress of a teammate with a player that was just loaded, as the sharing is lost when a player is
+     * unloaded. Only teammates that are loaded are used, the next teammate to load shares with this player otherwise.
+     */
+    private void shareWithTeam(UUID uuid, QuestsProgress loaded) {
+        for (UUID member : TeamProviders.getMembers(server.overworld(), uuid)) {
+            if (member.equals(uuid)) continue;
+            QuestsProgress memberProgress = progress.get(member);
+            if (memberProgress == null) continue;
+            memberProgress.shareWith(loaded);
+            return;
+        }
     }
 
     public static QuestsProgress getProgress(MinecraftServer server, UUID uuid) {
@@ -42,108 +105,325 @@ public class QuestProgressHandler extends SavedData {
 
     public static void setupChanger() {
         TeamProviders.init((level, uuid) -> {
+            var currentProgress = getProgress(level.getServer(), uuid);
+            // Stop sharing with the previous team before sharing with the new one.
+            currentProgress.detachShared();
             List<UUID> members = TeamProviders.getMembers(level, uuid);
             if (members.isEmpty()) return;
-            QuestsProgress progress = findFirstPerson(level.getServer(), members);
+            QuestsProgress progress = findFirstPerson(level.getServer(), uuid, members);
             if (progress == null) return;
-            var currentProgress = getProgress(level.getServer(), uuid);
-            copyProgress(progress, currentProgress);
+            progress.shareWith(currentProgress);
             currentProgress.completableQuests().updateCompleteQuests(currentProgress);
         });
     }
 
+    /**
+     * Queues the full progress of the quests to be synced at the end of the tick.
+     */
     public static void sync(ServerPlayer player, Collection<String> quests) {
-        Map<String, QuestProgress> progress = new LinkedHashMap<>();
+        ProgressOutbox.quests(player, quests);
+    }
+
+    /**
+     * Queues only the given tasks of each quest to be synced at the end of the tick, for when nothing but these tasks changed.
+     */
+    public static void syncTasks(ServerPlayer player, Map<String, ? extends Collection<String>> tasks) {
+        ProgressOutbox.tasks(player, tasks);
+    }
+
+    public static SyncQuestProgressPacket createSyncPacket(ServerPlayer player, Collection<String> quests) {
+        Map<String, CompoundTag> progress = new LinkedHashMap<>();
         quests.forEach(id -> {
             Quest quest = QuestHandler.get(id);
             if (quest == null) return;
-            progress.put(id, QuestProgressHandler.getProgress(player.server, player.getUUID()).getProgress(id));
+            progress.put(id, QuestProgressHandler.getProgress(player.server, player.getUUID()).getProgress(id).save());
+        });
+        return new SyncQuestProgressPacket(progress);
+    }
+
+    /**
+     * Syncs all the progress of the player, replacing any progress the client had.
+     */
+    public static void syncAll(ServerPlayer player) {
+        QuestsProgress progress = getProgress(player.server, player.getUUID());
+        NetworkHandler.sendToPlayer(new SyncQuestProgressPacket(ProgressStorage.serialize(progress, progress.progress().keySet()), true), player);
+    }
+
+    public static SyncTaskProgressPacket createTaskSyncPacket(ServerPlayer player, Map<String, ? extends Collection<String>> tasks) {
+        QuestsProgress progress = getProgress(player.server, player.getUUID());
+        List<SyncTaskProgressPacket.QuestDelta> quests = new ArrayList<>();
+        tasks.forEach((id, taskIds) -> {
+            if (QuestHandler.get(id) == null) return;
+            QuestProgress questProgress = progress.getProgress(id);
+            List<SyncTaskProgressPacket.TaskDelta> deltas = new ArrayList<>();
+            for (String task : taskIds) {
+                TaskProgress<?> taskProgress = questProgress.tasks().get(task);
+                if (taskProgress == null) continue;
+                deltas.add(new SyncTaskProgressPacket.TaskDelta(task, taskProgress.isComplete(), taskProgress.progress()));
+            }
+            quests.add(new SyncTaskProgressPacket.QuestDelta(id, questProgress.isComplete(), deltas));
         });
-        NetworkHandler.CHANNEL.sendToPlayer(new SyncQuestProgressPacket(progress), player);
+        return new SyncTaskProgressPacket(quests);
     }
 
-    private static QuestsProgress findFirstPerson(MinecraftServer server, List<UUID> members) {
+    private static QuestsProgress findFirstPerson(MinecraftServer server, UUID player, List<UUID> members) {
         for (UUID member : members) {
+            if (member.equals(player)) continue;
             QuestsProgress progress = getProgress(server, member);
             if (progress != null) return progress;
         }
         return null;
     }
 
-    private static void copyProgress(QuestsProgress from, QuestsProgress to) {
-        from.progress().forEach((id, progress) -> {
-            Quest quest = QuestHandler.get(id);
-            if (quest == null) return;
-            if (quest.settings().individualProgress()) return;
-            try {
-                to.progress().put(id, new QuestProgress(quest, progress.save()));
-            } catch (Exception e) {
-                Heracles.LOGGER.error("Failed to copy quest progress for player {}", id, e);
-            }
-        });
-    }
-
     public void updatePossibleQuests() {
-        progress.values().forEach(progress -> progress.completableQuests().updateCompleteQuests(progress));
+        List.copyOf(progress.values()).forEach(progress -> progress.completableQuests().updateCompleteQuests(progress));
     }
 
     @Override
     public boolean isDirty() {
-        return true;
+        if (super.isDirty()) return true;
+        for (QuestsProgress value : progress.values()) {
+            if (value.isDirty()) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void save(@NotNull File file) {
+        FlightRecorderEvents.ProgressSave event = new FlightRecorderEvents.ProgressSave();
+        event.begin();
+        if (event.isEnabled()) {
+            for (QuestsProgress value : progress.values()) {
+                if (!value.isDirty()) continue;
+                event.players++;
+                event.quests += value.dirtyQuests().size();
+            }
+        }
+        long start = PerformanceMetrics.start();
+        savePlayers();
+        int loaded = progress.size();
+        unloadPlayers();
+        event.unloaded = loaded - progress.size();
+        // The legacy file is only emptied once all of its players have been saved to the storage, otherwise it is
+        // kept as is and written on a later save.
+        if (imported.isEmpty()) {
+            super.save(file);
+        } else {
+            Heracles.LOGGER.warn("Keeping the legacy quest progress file, {} players haven't been moved to the storage yet", imported.size());
+        }
+        PerformanceMetrics.stop("progress.save", start);
+        if (event.shouldCommit()) {
+            event.commit();
+        }
     }
 
     @Override
     public @NotNull CompoundTag save(CompoundTag tag) {
+        return tag;
+    }
+
+    private void savePlayers() {
         for (var entry : progress.entrySet()) {
-            CompoundTag progressTag = new CompoundTag();
-            entry.getValue().progress().forEach((id, progress) -> {
-                Quest quest = QuestHandler.get(id);
-                if (quest == null) return;
-                try {
-                    progressTag.put(id, progress.save());
-                } catch (Exception e) {
-                    Heracles.LOGGER.error("Failed to save quest progress for player {}", id, e);
-                }
-            });
-            tag.put(entry.getKey().toString(), progressTag);
+            if (!entry.getValue().isDirty() || failedLoads.contains(entry.getKey())) continue;
+            Set<String> dirty = entry.getValue().takeDirty();
+            PerformanceMetrics.count("progress.saved_quests", dirty.size());
+            if (savePlayer(entry.getKey(), entry.getValue(), dirty)) {
+                imported.remove(entry.getKey());
+            } else {
+                entry.getValue().markDirty(dirty);
+            }
+        }
+    }
+
+    private boolean savePlayer(UUID player, QuestsProgress progress, Set<String> changed) {
+        try {
+            storage.save(player, progress, changed);
+            return true;
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Failed to save quest progress for player {}", player, e);
+            return false;
         }
+    }
 
-        return tag;
+    /**
+     * Unloads offline players that haven't been accessed for a while, must only be called once dirty players are saved.
+     */
+    private void unloadPlayers() {
+        long idleBefore = Util.getMillis() - ServerConfig.progressIdleSeconds * 1000L;
+        int overCapacity = progress.size() - ServerConfig.progressCacheSize;
+        var iterator = progress.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            UUID uuid = entry.getKey();
+            if (server.getPlayerList().getPlayer(uuid) != null) continue;
+            // Offline players that failed to load are unloaded right away so their progress is loaded again when next needed.
+            boolean failed = failedLoads.contains(uuid);
+            if (entry.getValue().isDirty() && !failed) continue;
+            if (failed || overCapacity > 0 || lastAccess.getOrDefault(uuid, 0L) < idleBefore) {
+                iterator.remove();
+                lastAccess.remove(uuid);
+                failedLoads.remove(uuid);
+                overCapacity--;
+            }
+        }
+    }
+
+    private QuestsProgress loadPlayer(UUID player) {
+        Set<String> badQuests = new HashSet<>();
+        try {
+            Map<String, CompoundTag> saved = storage.load(player);
+            boolean fromFiles = false;
+            if (saved == null && migrating) {
+                saved = new FileProgressStorage(dataPath.resolve("progress")).load(player);
+                fromFiles = saved != null;
+            }
+            failedLoads.remove(player);
+            if (saved == null) return new QuestsProgress(new HashMap<>());
+            QuestsProgress progress = loadPlayer(player.toString(), saved, badQuests);
+            if (fromFiles) {
+                progress.markDirty(progress.progress().keySet());
+            }
+            if (!badQuests.isEmpty()) {
+                Heracles.LOGGER.error("Failed to load quest progress for player {} for quests: {}", player, String.join(", ", badQuests));
+            }
+            return progress;
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Failed to load quest progress for player {}, their progress won't be saved until it loads", player, e);
+            failedLoads.add(player);
+            return new QuestsProgress(new HashMap<>());
+        }
     }
 
+    private static QuestsProgress loadPlayer(String player, Map<String, CompoundTag> progress, Set<String> badQuests) {
+        Map<String, QuestProgress> questProgress = new HashMap<>();
+        for (var entry : progress.entrySet()) {
+            String quest = entry.getKey();
+            Quest questObj = QuestHandler.get(quest);
+            if (questObj == null) {
+                badQuests.add(quest);
+                continue;
+            }
+            try {
+                QuestProgress progressObj = new QuestProgress(questObj, entry.getValue());
+                questProgress.put(quest, progressObj);
+            } catch (Exception e) {
+                Heracles.LOGGER.error("Failed to load quest progress for player {}", player, e);
+            }
+        }
+        return new QuestsProgress(questProgress);
+    }
+
+    /**
+     * Loads progress saved by older versions, where every player was stored in the one saved data file.
+     * The players are moved to the storage on the next save.
+     */
     public void load(CompoundTag tag) {
+        if (tag.isEmpty()) return;
         Set<String> badQuests = new HashSet<>();
         for (var player : tag.getAllKeys()) {
-            CompoundTag progress = tag.getCompound(player);
-            Map<String, QuestProgress> questProgress = new HashMap<>();
-            for (var quest : progress.getAllKeys()) {
-                Quest questObj = QuestHandler.get(quest);
-                if (questObj == null) {
-                    badQuests.add(quest);
-                    continue;
-                }
-                try {
-                    QuestProgress progressObj = new QuestProgress(questObj, progress.getCompound(quest));
-                    questProgress.put(quest, progressObj);
-                } catch (Exception e) {
-                    Heracles.LOGGER.error("Failed to load quest progress for player {}", player, e);
-                }
-                this.progress.put(UUID.fromString(player), new QuestsProgress(questProgress));
+            UUID uuid = UUID.fromString(player);
+            if (hasSaved(uuid)) continue; // Already moved to the storage
+            CompoundTag playerTag = tag.getCompound(player);
+            Map<String, CompoundTag> saved = new HashMap<>();
+            playerTag.getAllKeys().forEach(quest -> saved.put(quest, playerTag.getCompound(quest)));
+            QuestsProgress progress = loadPlayer(player, saved, badQuests);
+            progress.markDirty(progress.progress().keySet());
+            this.progress.put(uuid, progress);
+            if (!progress.progress().isEmpty()) {
+                this.imported.add(uuid);
             }
         }
         if (!badQuests.isEmpty()) {
             Heracles.LOGGER.error("Failed to load quest progress for quests: {}", String.join(", ", badQuests));
         }
+        setDirty();
+    }
+
+    private boolean hasSaved(UUID player) {
+        try {
+            return storage.has(player);
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Failed to check quest progress for player {}", player, e);
+            return false;
+        }
+    }
+
+    /**
+     * Moves all progress into the current storage. Progress from the legacy saved data file is imported
+     * when loaded so it only has to be saved, and if the storage isn't files any player files it doesn't have yet are copied over.
+     * <p>
+     * The files are copied in batches on the server thread when it has time to spare, so the server keeps running while
+     * a large amount of players is copied. Loaded players are left out as they are saved to the storage on their own.
+     *
+     * @return The amount of players copied from files.
+     */
+    public CompletableFuture<Integer> migrate() {
+        savePlayers();
+        setDirty();
+        if (storage instanceof FileProgressStorage) return CompletableFuture.completedFuture(0);
+        if (migrating) return CompletableFuture.failedFuture(new IllegalStateException("Quest progress is already being migrated"));
+        FileProgressStorage files = new FileProgressStorage(dataPath.resolve("progress"));
+        Queue<UUID> players;
+        try {
+            players = new ArrayDeque<>(files.players());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        migrating = true;
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        migrateBatch(files, players, 0, result);
+        return result;
+    }
+
+    private void migrateBatch(FileProgressStorage files, Queue<UUID> players, int migrated, CompletableFuture<Integer> result) {
+        for (int i = 0; i < MIGRATE_BATCH_SIZE && !players.isEmpty(); i++) {
+            UUID player = players.poll();
+            // The file of a loaded player can be older than the progress that is saved for them.
+            if (progress.containsKey(player) || imported.contains(player)) continue;
+            try {
+                if (storage.has(player)) continue;
+                Map<String, CompoundTag> saved = files.load(player);
+                if (saved == null) continue;
+                storage.replace(player, saved);
+                migrated++;
+            } catch (Exception e) {
+                Heracles.LOGGER.error("Failed to migrate quest progress for player {}", player, e);
+            }
+        }
+        if (players.isEmpty()) {
+            migrating = false;
+            result.complete(migrated);
+            return;
+        }
+        int count = migrated;
+        // Tick tasks only run while the server has time left in the tick, or a few ticks later at the latest.
+        server.tell(new TickTask(server.getTickCount(), () -> migrateBatch(files, players, count, result)));
+    }
+
+    public int countCompleted(String quest) throws Exception {
+        savePlayers();
+        return storage.countCompleted(quest);
+    }
+
+    public static void closeStorage() {
+        if (openStorage == null) return;
+        try {
+            openStorage.close();
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Failed to close quest progress storage", e);
+        }
+        openStorage = null;
     }
 
     public static QuestProgressHandler read(MinecraftServer server) {
+        Path dataPath = server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(Heracles.MOD_ID);
         return server
             .overworld()
             .getDataStorage()
             .computeIfAbsent(tag -> {
-                QuestProgressHandler handler = new QuestProgressHandler();
+                QuestProgressHandler handler = new QuestProgressHandler(server, dataPath);
                 handler.load(tag);
                 return handler;
-            }, QuestProgressHandler::new, "heracles_quest_progress");
+            }, () -> new QuestProgressHandler(server, dataPath), "heracles_quest_progress");
     }
 }
@@ -1,6 +1,5 @@
 package earth.terrarium.heracles.common.handlers.progress;
 
-import com.google.common.collect.Maps;
 import earth.terrarium.heracles.api.events.HeraclesEvents;
 import earth.terrarium.heracles.api.events.QuestEventTarget;
 import earth.terrarium.heracles.api.events.TaskEventTarget;
@@ -9,11 +8,12 @@ import earth.terrarium.heracles.api.quests.QuestEntry;
 import earth.terrarium.heracles.api.tasks.QuestTask;
 import earth.terrarium.heracles.api.tasks.QuestTaskType;
 import earth.terrarium.heracles.api.teams.TeamProviders;
+import earth.terrarium.heracles.common.handlers.metrics.FlightRecorderEvents;
+import earth.terrarium.heracles.common.handlers.metrics.PerformanceMetrics;
 import earth.terrarium.heracles.common.handlers.pinned.PinnedQuestHandler;
 import earth.terrarium.heracles.common.handlers.quests.CompletableQuests;
 import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
-import earth.terrarium.heracles.common.network.NetworkHandler;
-import earth.terrarium.heracles.common.network.packets.QuestCompletedPacket;
+import earth.terrarium.heracles.common.handlers.syncing.ProgressOutbox;
 import earth.terrarium.heracles.common.utils.ModUtils;
 import net.minecraft.Optionull;
 import net.minecraft.nbt.Tag;
@@ -21,66 +21,111 @@ import net.minecraft.server.level.ServerPlayer;
 
 import java.util.*;
 
-public record QuestsProgress(Map<String, QuestProgress> progress, CompletableQuests completableQuests) {
+public record QuestsProgress(Map<String, QuestProgress> progress, CompletableQuests completableQuests, Set<String> dirtyQuests) {
 
     public QuestsProgress(Map<String, QuestProgress> progress) {
-        this(progress, new CompletableQuests());
+        this(progress, new CompletableQuests(), new HashSet<>());
     }
 
     public <I, T extends QuestTask<I, ?, T>> void testAndProgressTaskType(ServerPlayer player, I input, QuestTaskType<T> taskType) {
+        FlightRecorderEvents.ProgressEvaluation event = new FlightRecorderEvents.ProgressEvaluation();
+        event.begin();
+        long start = PerformanceMetrics.start();
+        Map<String, List<QuestTask<?, ?, ?>>> tasks = this.completableQuests.getTasks(this, taskType, input);
+        int taskCount = PerformanceMetrics.isEnabled() || event.isEnabled() ? tasks.values().stream().mapToInt(List::size).sum() : 0;
+        if (PerformanceMetrics.isEnabled()) {
+            PerformanceMetrics.count("events." + taskType.id());
+        }
+        PerformanceMetrics.record("progress.tasks_evaluated", taskCount);
+        int edited = 0;
+        try {
+            edited = testAndProgressTasks(player, input, taskType, tasks);
+        } finally {
+            PerformanceMetrics.stop("progress.evaluate", start);
+            if (event.shouldCommit()) {
+                event.player = player.getGameProfile().getName();
+                event.taskType = taskType.id().toString();
+                event.tasks = taskCount;
+                event.quests = edited;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * @return The number of quests whose progress changed.
+     */
+    private <I, T extends QuestTask<I, ?, T>> int testAndProgressTasks(ServerPlayer player, I input, QuestTaskType<T> taskType, Map<String, List<QuestTask<?, ?, ?>>> tasks) {
+        if (tasks.isEmpty()) return 0;
         List<QuestEntry> editedQuests = new ArrayList<>();
-        for (String id : this.completableQuests.getQuests(this)) {
+        Map<String, Set<String>> editedTasks = new LinkedHashMap<>();
+        Set<String> completed = new HashSet<>();
+        // Copied as completing a task can fire events which may change the completable quests.
+        for (var questTasks : List.copyOf(tasks.entrySet())) {
+            String id = questTasks.getKey();
             QuestProgress questProgress = getProgress(id);
             Quest quest = QuestHandler.get(id);
+            if (quest == null) continue;
             QuestEntry entry = QuestEntry.of(id, quest);
-            for (QuestTask<?, ?, ?> task : quest.tasks().values()) {
-                if (task.isCompatibleWith(taskType)) {
-                    TaskProgress<?> progress = questProgress.getTask(task);
-                    if (progress.isComplete()) continue;
-                    Tag before = progress.progress().copy();
-                    progress.addProgress(taskType, ModUtils.cast(task), input);
-                    if (progress.isComplete()) {
-                        HeraclesEvents.TaskCompleteListener.fire(TaskEventTarget.create(task, player));
-                    }
-
-                    Tag after = progress.progress();
-                    if (task.storage().same(before, after)) continue;
-                    editedQuests.add(entry);
+            boolean wasComplete = questProgress.isComplete();
+            for (QuestTask<?, ?, ?> task : questTasks.getValue()) {
+                TaskProgress<?> progress = questProgress.getTask(task);
+                if (progress.isComplete()) continue;
+                Tag before = progress.progress().copy();
+                progress.addProgress(taskType, ModUtils.cast(task), input);
+                if (progress.isComplete()) {
+                    HeraclesEvents.TaskCompleteListener.fire(TaskEventTarget.create(task, player));
                 }
+
+                Tag after = progress.progress();
+                if (task.storage().same(before, after)) continue;
+                editedQuests.add(entry);
+                editedTasks.computeIfAbsent(id, k -> new HashSet<>()).add(task.id());
             }
             questProgress.update(quest);
             this.progress.put(id, questProgress);
-            if (questProgress.isComplete()) {
+            markDirty(id);
+            if (questProgress.isComplete() && !wasComplete) {
+                completed.add(id);
                 sendOutQuestComplete(entry, player);
             }
         }
-        if (editedQuests.isEmpty()) return;
+        if (editedQuests.isEmpty()) return 0;
         Set<String> updatedQuests = new HashSet<>();
         editedQuests.forEach(pair -> updatedQuests.add(pair.id()));
         PinnedQuestHandler.syncIfChanged(player, updatedQuests);
-        QuestProgressHandler.sync(player, updatedQuests);
-        this.completableQuests.updateCompleteQuests(this, player);
-        syncToTeam(player, editedQuests);
+        QuestProgressHandler.syncTasks(player, editedTasks);
+        this.completableQuests.updateCompleteQuests(this, updatedQuests, player);
+        syncToTeam(player, editedQuests, completed);
+        return updatedQuests.size();
     }
 
     public void resetQuest(String quest, ServerPlayer player) {
         if (!progress.containsKey(quest)) return;
+        // Only this player is reset, the team shares the progress again the next time one of them progresses it.
+        progress.get(quest).detach();
         progress.get(quest).reset();
-        this.completableQuests.updateCompleteQuests(this, player);
+        BarrierCache.invalidate(player.getUUID());
+        markDirty(quest);
+        this.completableQuests.updateCompleteQuests(this, List.of(quest), player);
         QuestProgressHandler.sync(player, List.of(quest));
     }
 
     public void completeQuest(String id, Quest quest, ServerPlayer player) {
         QuestProgress progress = getProgress(id);
+        boolean wasComplete = progress.isComplete();
         progress.setComplete(true);
         this.progress.put(id, progress);
-        sendOutQuestChanged(id, quest, progress, player);
+        markDirty(id);
+        sendOutQuestChanged(id, quest, progress, player, wasComplete);
         QuestProgressHandler.sync(player, List.of(id));
     }
 
     public void reset(ServerPlayer player) {
         List<String> quests = new ArrayList<>(progress.keySet());
         progress.clear();
+        BarrierCache.invalidate(player.getUUID());
+        markDirty(quests);
         completableQuests.updateCompleteQuests(this);
         QuestProgressHandler.sync(player, quests);
     }
@@ -88,6 +133,7 @@ public record QuestsProgress(Map<String, QuestProgress> progress, CompletableQue
 
     public void claimReward(String questId, String rewardId, ServerPlayer player) {
         progress.get(questId).claimReward(rewardId);
+        markDirty(questId);
         Quest quest = QuestHandler.get(questId);
         if (quest.settings().repeatable() && progress.get(questId).claimedRewards().size() == quest.rewards().size()) {
             resetQuest(questId, player);
@@ -95,8 +141,7 @@ public record QuestsProgress(Map<String, QuestProgress> progress, CompletableQue
     }
 
     public <I, T extends QuestTask<I, ?, T>> boolean testAndProgressTask(ServerPlayer player, String id, String task, I input, QuestTaskType<T> taskType) {
-        List<String> completableQuests = this.completableQuests.getQuests(this);
-        if (!completableQuests.contains(id)) return false;
+        if (!this.completableQuests.getQuests(this).contains(id)) return false;
         QuestProgress questProgress = getProgress(id);
         Quest quest = QuestHandler.get(id);
         if (quest == null) return false;
@@ -110,53 +155,104 @@ public record QuestsProgress(Map<String, QuestProgress> progress, CompletableQue
         return true;
     }
 
+    /**
+     * Saves and syncs the progress of a quest whose tasks were progressed, the quest is only completed once the
+     * progress is updated so it is complete now if it wasn't before.
+     */
     public void sendOutQuestChanged(String id, Quest quest, QuestProgress questProgress, ServerPlayer player) {
+        sendOutQuestChanged(id, quest, questProgress, player, questProgress.isComplete());
+    }
+
+    private void sendOutQuestChanged(String id, Quest quest, QuestProgress questProgress, ServerPlayer player, boolean wasComplete) {
         questProgress.update(quest);
         this.progress.put(id, questProgress);
+        markDirty(id);
         PinnedQuestHandler.syncIfChanged(player, List.of(id));
         QuestEntry entry = QuestEntry.of(id, quest);
-        if (questProgress.isComplete()) {
+        boolean completed = questProgress.isComplete() && !wasComplete;
+        if (completed) {
             sendOutQuestComplete(entry, player);
         }
-        this.completableQuests.updateCompleteQuests(this, player);
-        syncToTeam(player, List.of(entry));
-    }
-
-    private void syncToTeam(ServerPlayer player, List<QuestEntry> quests) {
-        TeamProviders.getMembers(player)
-            .forEach(member -> {
-                QuestsProgress memberProgress = QuestProgressHandler.getProgress(player.server, member);
-                ServerPlayer serverPlayer = player.server.getPlayerList().getPlayer(member);
-                for (var entry : quests) {
-                    if (entry.quest().settings().individualProgress()) continue;
-                    boolean wasComplete = memberProgress.isComplete(entry.id());
-                    var currentProgress = memberProgress.progress().get(entry.id());
-                    var questProgress = progress.get(entry.id());
-                    var newTasks = copyTasks(questProgress.tasks());
-                    memberProgress.progress.put(entry.id(), new QuestProgress(questProgress.isComplete(), Set.copyOf(Optionull.mapOrDefault(currentProgress, QuestProgress::claimedRewards, new HashSet<>())), newTasks));
-                    if (serverPlayer != null && (questProgress.isComplete() && !wasComplete)) {
-                        sendOutQuestComplete(entry, player);
-                    }
+        this.completableQuests.updateCompleteQuests(this, List.of(id), player);
+        QuestProgressHandler.sync(player, List.of(id));
+        syncToTeam(player, List.of(entry), completed ? Set.of(id) : Set.of());
+    }
+
+    /**
+     * Shares the progress of the quests with the team members, once shared the members see any further task progress
+     * without copying so this only has to update the completable quests and sync the members.
+     *
+     * @param completed the quests that were just completed, members already sharing their progress complete them as well.
+     */
+    private void syncToTeam(ServerPlayer player, List<QuestEntry> quests, Set<String> completed) {
+        FlightRecorderEvents.TeamSync event = new FlightRecorderEvents.TeamSync();
+        event.begin();
+        List<UUID> members = TeamProviders.getMembers(player);
+        for (UUID member : members) {
+            if (member.equals(player.getUUID())) continue;
+            QuestsProgress memberProgress = QuestProgressHandler.getProgress(player.server, member);
+            ServerPlayer serverPlayer = player.server.getPlayerList().getPlayer(member);
+            List<String> changed = new ArrayList<>();
+            for (var entry : quests) {
+                if (entry.quest().settings().individualProgress()) continue;
+                changed.add(entry.id());
+                var questProgress = progress.get(entry.id());
+                var currentProgress = memberProgress.progress().get(entry.id());
+                // Shared progress was completed for the member along with the player, otherwise the member's own
+                // progress tells if it was complete before.
+                boolean shared = currentProgress != null && currentProgress.isSharedWith(questProgress);
+                boolean wasComplete = shared ? !completed.contains(entry.id()) : currentProgress != null && currentProgress.isComplete();
+                if (!shared) {
+                    memberProgress.progress.put(entry.id(), questProgress.share(Optionull.mapOrDefault(currentProgress, QuestProgress::claimedRewards, Set.of())));
                 }
-                memberProgress.completableQuests.updateCompleteQuests(memberProgress, serverPlayer);
-                List<String> questIds = memberProgress.completableQuests.getQuests(memberProgress);
-                if (serverPlayer != null) {
-                    QuestProgressHandler.sync(serverPlayer, questIds);
+                if (serverPlayer != null && (questProgress.isComplete() && !wasComplete)) {
+                    sendOutQuestComplete(entry, serverPlayer);
                 }
-            });
+            }
+            if (changed.isEmpty()) continue;
+            BarrierCache.invalidate(member);
+            memberProgress.markDirty(changed);
+            memberProgress.completableQuests.updateCompleteQuests(memberProgress, changed, serverPlayer);
+            if (serverPlayer != null) {
+                QuestProgressHandler.sync(serverPlayer, changed);
+            }
+        }
+        if (event.shouldCommit()) {
+            event.player = player.getGameProfile().getName();
+            event.members = members.size();
+            event.quests = (int) quests.stream().map(QuestEntry::id).distinct().count();
+            event.commit();
+        }
     }
 
-    public static void sendOutQuestComplete(QuestEntry entry, ServerPlayer player) {
-        NetworkHandler.CHANNEL.sendToPlayer(new QuestCompletedPacket(entry.id()), player);
-        HeraclesEvents.QuestCompleteListener.fire(QuestEventTarget.create(entry, player));
+    /**
+     * Shares the progress of all quests without individual progress with the given progress, replacing its own.
+     */
+    public void shareWith(QuestsProgress other) {
+        List<String> shared = new ArrayList<>();
+        this.progress.forEach((id, questProgress) -> {
+            Quest quest = QuestHandler.get(id);
+            if (quest == null || quest.settings().individualProgress()) return;
+            QuestProgress current = other.progress.get(id);
+            other.progress.put(id, questProgress.share(Optionull.mapOrDefault(current, QuestProgress::claimedRewards, Set.of())));
+            shared.add(id);
+        });
+        BarrierCache.invalidate();
+        other.markDirty(shared);
     }
 
-    private Map<String, TaskProgress<?>> copyTasks(Map<String, TaskProgress<?>> tasks) {
-        Map<String, TaskProgress<?>> newTasks = Maps.newHashMapWithExpectedSize(tasks.size());
-        for (Map.Entry<String, TaskProgress<?>> entry : tasks.entrySet()) {
-            newTasks.put(entry.getKey(), entry.getValue().copy());
-        }
-        return newTasks;
+    /**
+     * Stops sharing progress with any other player, used when leaving a team.
+     */
+    public void detachShared() {
+        this.progress.values().forEach(QuestProgress::detach);
+        BarrierCache.invalidate();
+    }
+
+    public static void sendOutQuestComplete(QuestEntry entry, ServerPlayer player) {
+        BarrierCache.invalidate();
+        ProgressOutbox.completed(player, entry.id());
+        HeraclesEvents.QuestCompleteListener.fire(QuestEventTarget.create(entry, player));
     }
 
     public boolean isComplete(String id) {
@@ -172,4 +268,28 @@ public record QuestsProgress(Map<String, QuestProgress> progress, CompletableQue
     public QuestProgress getProgress(String id) {
         return progress.getOrDefault(id, new QuestProgress());
     }
+
+    /**
+     * Marks the progress of the quest as changed so it will be written on the next save.
+     */
+    public void markDirty(String id) {
+        this.dirtyQuests.add(id);
+    }
+
+    public void markDirty(Collection<String> ids) {
+        this.dirtyQuests.addAll(ids);
+    }
+
+    public boolean isDirty() {
+        return !this.dirtyQuests.isEmpty();
+    }
+
+    /**
+     * Gets the quests changed since the last call and clears them.
+     */
+    public Set<String> takeDirty() {
+        Set<String> dirty = Set.copyOf(this.dirtyQuests);
+        this.dirtyQuests.clear();
+        return dirty;
+    }
 }
@@ -0,0 +1,188 @@
+package earth.terrarium.heracles.common.handlers.progress.storage;
+
+import earth.terrarium.heracles.common.handlers.progress.QuestsProgress;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Stores progress in a database with a row per player per quest, so saves only touch the quests that changed.
+ * Any JDBC database works as long as its driver is installed, such as SQLite or H2 in file mode. Drivers installed
+ * as mods are loaded by the mod loader where {@link DriverManager} can't see them, so they are looked up with the
+ * class loader of the mod and connected to directly.
+ */
+public class DatabaseProgressStorage implements ProgressStorage {
+
+    private static final String CREATE = "CREATE TABLE IF NOT EXISTS heracles_progress (player VARCHAR(36) NOT NULL, quest VARCHAR(255) NOT NULL, complete BOOLEAN NOT NULL, data BLOB NOT NULL, PRIMARY KEY (player, quest))";
+    private static final String HAS = "SELECT 1 FROM heracles_progress WHERE player = ? LIMIT 1";
+    private static final String LOAD = "SELECT quest, data FROM heracles_progress WHERE player = ?";
+    private static final String INSERT = "INSERT INTO heracles_progress (player, quest, complete, data) VALUES (?, ?, ?, ?)";
+    private static final String DELETE = "DELETE FROM heracles_progress WHERE player = ? AND quest = ?";
+    private static final String DELETE_PLAYER = "DELETE FROM heracles_progress WHERE player = ?";
+    private static final String PLAYERS = "SELECT DISTINCT player FROM heracles_progress";
+    private static final String COUNT_COMPLETED = "SELECT COUNT(*) FROM heracles_progress WHERE quest = ? AND complete = ?";
+
+    private final Connection connection;
+
+    private DatabaseProgressStorage(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @param driver the class of the driver to use, or blank to use the first installed driver that accepts the url.
+     */
+    public static DatabaseProgressStorage open(String url, String driver) throws Exception {
+        Connection connection = connect(url, driver);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE);
+        }
+        connection.setAutoCommit(false);
+        return new DatabaseProgressStorage(connection);
+    }
+
+    private static Connection connect(String url, String driverClass) throws Exception {
+        ClassLoader loader = DatabaseProgressStorage.class.getClassLoader();
+        Driver driver = null;
+        if (!driverClass.isBlank()) {
+            driver = (Driver) Class.forName(driverClass, true, loader).getDeclaredConstructor().newInstance();
+        } else {
+            for (Driver installed : ServiceLoader.load(Driver.class, loader)) {
+                if (installed.acceptsURL(url)) {
+                    driver = installed;
+                    break;
+                }
+            }
+        }
+        // Drivers on the class path of the server itself are still found by the driver manager.
+        if (driver == null) return DriverManager.getConnection(url);
+        Connection connection = driver.connect(url, new Properties());
+        if (connection == null) {
+            throw new SQLException("The driver " + driver.getClass().getName() + " doesn't accept the url " + url);
+        }
+        return connection;
+    }
+
+    @Override
+    public boolean has(UUID player) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(HAS)) {
+            statement.setString(1, player.toString());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next();
+            }
+        }
+    }
+
+    @Override
+    public @Nullable Map<String, CompoundTag> load(UUID player) throws Exception {
+        Map<String, CompoundTag> progress = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(LOAD)) {
+            statement.setString(1, player.toString());
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    progress.put(result.getString(1), read(result.getBytes(2)));
+                }
+            }
+        }
+        return progress.isEmpty() ? null : progress;
+    }
+
+    @Override
+    public void save(UUID player, QuestsProgress progress, Set<String> changed) throws Exception {
+        Map<String, CompoundTag> tags = ProgressStorage.serialize(progress, changed);
+        transaction(() -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE)) {
+                for (String quest : changed) {
+                    statement.setString(1, player.toString());
+                    statement.setString(2, quest);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            insert(player, tags);
+        });
+    }
+
+    @Override
+    public void replace(UUID player, Map<String, CompoundTag> progress) throws Exception {
+        transaction(() -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_PLAYER)) {
+                statement.setString(1, player.toString());
+                statement.executeUpdate();
+            }
+            insert(player, progress);
+        });
+    }
+
+    private void insert(UUID player, Map<String, CompoundTag> progress) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (var entry : progress.entrySet()) {
+                statement.setString(1, player.toString());
+                statement.setString(2, entry.getKey());
+                statement.setBoolean(3, entry.getValue().getBoolean("complete"));
+                statement.setBytes(4, write(entry.getValue()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void transaction(SqlAction action) throws Exception {
+        try {
+            action.run();
+            connection.commit();
+        } catch (Exception e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    @Override
+    public Collection<UUID> players() throws SQLException {
+        List<UUID> players = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(PLAYERS)) {
+            while (result.next()) {
+                players.add(UUID.fromString(result.getString(1)));
+            }
+        }
+        return players;
+    }
+
+    @Override
+    public int countCompleted(String quest) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(COUNT_COMPLETED)) {
+            statement.setString(1, quest);
+            statement.setBoolean(2, true);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getInt(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    private static byte[] write(CompoundTag tag) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            NbtIo.write(tag, output);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static CompoundTag read(byte[] bytes) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return NbtIo.read(input);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,93 @@
+package earth.terrarium.heracles.common.handlers.progress.storage;
+
+import earth.terrarium.heracles.common.handlers.progress.QuestsProgress;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Stores the progress of each player in its own compressed nbt file.
+ */
+public class FileProgressStorage implements ProgressStorage {
+
+    private static final String FILE_EXTENSION = ".dat";
+
+    private final Path path;
+
+    public FileProgressStorage(Path path) {
+        this.path = path;
+    }
+
+    private Path getFile(UUID player) {
+        return path.resolve(player + FILE_EXTENSION);
+    }
+
+    @Override
+    public boolean has(UUID player) {
+        return Files.isRegularFile(getFile(player));
+    }
+
+    @Override
+    public @Nullable Map<String, CompoundTag> load(UUID player) throws Exception {
+        Path file = getFile(player);
+        if (!Files.isRegularFile(file)) return null;
+        CompoundTag tag = NbtIo.readCompressed(file.toFile());
+        Map<String, CompoundTag> progress = new HashMap<>();
+        for (String quest : tag.getAllKeys()) {
+            progress.put(quest, tag.getCompound(quest));
+        }
+        return progress;
+    }
+
+    @Override
+    public void save(UUID player, QuestsProgress progress, Set<String> changed) throws Exception {
+        replace(player, ProgressStorage.serialize(progress, progress.progress().keySet()));
+    }
+
+    @Override
+    public void replace(UUID player, Map<String, CompoundTag> progress) throws Exception {
+        CompoundTag tag = new CompoundTag();
+        progress.forEach(tag::put);
+        Path temp = path.resolve(player + FILE_EXTENSION + ".tmp");
+        Files.createDirectories(path);
+        NbtIo.writeCompressed(tag, temp.toFile());
+        Files.move(temp, getFile(player), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public Collection<UUID> players() throws Exception {
+        if (!Files.isDirectory(path)) return List.of();
+        List<UUID> players = new ArrayList<>();
+        try (Stream<Path> files = Files.list(path)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(FILE_EXTENSION)) return;
+                try {
+                    players.add(UUID.fromString(name.substring(0, name.length() - FILE_EXTENSION.length())));
+                } catch (IllegalArgumentException ignored) {}
+            });
+        }
+        return players;
+    }
+
+    /**
+     * Has to read every player file, prefer a database storage when this is needed often.
+     */
+    @Override
+    public int countCompleted(String quest) throws Exception {
+        int count = 0;
+        for (UUID player : players()) {
+            Map<String, CompoundTag> progress = load(player);
+            if (progress != null && progress.containsKey(quest) && progress.get(quest).getBoolean("complete")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
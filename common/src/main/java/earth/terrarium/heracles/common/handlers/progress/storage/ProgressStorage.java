@@ -0,0 +1,95 @@
+package earth.terrarium.heracles.common.handlers.progress.storage;
+
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.common.handlers.ServerConfig;
+import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
+import earth.terrarium.heracles.common.handlers.progress.QuestsProgress;
+import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
+import net.minecraft.nbt.CompoundTag;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Where the quest progress of players is persisted, progress is stored as one tag per quest per player.
+ */
+public interface ProgressStorage extends AutoCloseable {
+
+    /**
+     * @return true if any progress is saved for the player.
+     */
+    boolean has(UUID player) throws Exception;
+
+    /**
+     * Loads the saved progress of the player.
+     *
+     * @return The progress tags by quest id, or null if nothing is saved for the player.
+     */
+    @Nullable
+    Map<String, CompoundTag> load(UUID player) throws Exception;
+
+    /**
+     * Saves the progress of the player.
+     *
+     * @param changed The quests changed since the last save, storages that support partial writes only need to write these.
+     */
+    void save(UUID player, QuestsProgress progress, Set<String> changed) throws Exception;
+
+    /**
+     * Replaces all the saved progress of the player.
+     */
+    void replace(UUID player, Map<String, CompoundTag> progress) throws Exception;
+
+    /**
+     * @return Every player with saved progress.
+     */
+    Collection<UUID> players() throws Exception;
+
+    /**
+     * @return The amount of players whose saved progress has the quest completed.
+     */
+    int countCompleted(String quest) throws Exception;
+
+    @Override
+    default void close() throws Exception {}
+
+    /**
+     * Serializes the progress of the given quests, quests without progress or that aren't loaded are left out.
+     */
+    static Map<String, CompoundTag> serialize(QuestsProgress progress, Collection<String> quests) {
+        Map<String, CompoundTag> tags = new HashMap<>();
+        for (String id : quests) {
+            QuestProgress questProgress = progress.progress().get(id);
+            if (questProgress == null || QuestHandler.get(id) == null) continue;
+            try {
+                tags.put(id, questProgress.save());
+            } catch (Exception e) {
+                Heracles.LOGGER.error("Failed to save quest progress for quest {}", id, e);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Creates the storage selected in the {@link ServerConfig}.
+     * <p>
+     * No database driver comes with the mod, so a database needs its url set and its driver installed. A database that
+     * can't be opened stops the server instead of falling back to files, as the progress would otherwise be split
+     * between the two without anyone noticing.
+     */
+    static ProgressStorage create(Path dataPath) {
+        if (ServerConfig.progressStorage.equals("database")) {
+            String url = ServerConfig.progressDatabaseUrl;
+            if (url.isBlank()) {
+                throw new IllegalStateException("Quest progress is set to be stored in a database but no progressDatabaseUrl is set");
+            }
+            try {
+                return DatabaseProgressStorage.open(url, ServerConfig.progressDatabaseDriver);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to open quest progress database " + url, e);
+            }
+        }
+        return new FileProgressStorage(dataPath.resolve("progress"));
+    }
+}
@@ -1,79 +1,222 @@
 package earth.terrarium.heracles.common.handlers.quests;
 
 import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.api.tasks.KeyedQuestTaskType;
 import earth.terrarium.heracles.api.tasks.QuestTask;
+import earth.terrarium.heracles.api.tasks.QuestTaskType;
+import earth.terrarium.heracles.api.tasks.TaskKeyIndex;
+import earth.terrarium.heracles.api.tasks.defaults.CompositeTask;
+import earth.terrarium.heracles.common.handlers.metrics.FlightRecorderEvents;
+import earth.terrarium.heracles.common.handlers.metrics.PerformanceMetrics;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
 import earth.terrarium.heracles.common.handlers.progress.QuestsProgress;
 import earth.terrarium.heracles.common.handlers.progress.TaskProgress;
-import earth.terrarium.heracles.common.network.NetworkHandler;
-import earth.terrarium.heracles.common.network.packets.QuestUnlockedPacket;
+import earth.terrarium.heracles.common.handlers.syncing.ProgressOutbox;
 import earth.terrarium.heracles.common.utils.ModUtils;
 import net.minecraft.nbt.Tag;
 import net.minecraft.server.level.ServerPlayer;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
+/**
+ * Tracks the quests a player can currently progress.
+ * <p>
+ * Every quest keeps a count of its incomplete dependencies so that completing or resetting a quest
+ * only has to update its direct dependents, a full rebuild is only needed when the quests themselves change.
+ */
 public class CompletableQuests {
 
-    private boolean updated = false;
-    private final List<String> quests = new ArrayList<>();
+    private int revision = -1;
+    private final Set<String> quests = new LinkedHashSet<>();
+    private final Set<String> completed = new HashSet<>();
+    private final Map<String, Integer> remaining = new HashMap<>();
+    private final TaskTypeIndex tasks = new TaskTypeIndex();
 
-    public List<String> getQuests(QuestsProgress progress) {
-        if (!this.updated) {
+    public Set<String> getQuests(QuestsProgress progress) {
+        if (this.revision != QuestHandler.revision()) {
             this.updateCompleteQuests(progress);
         }
         return this.quests;
     }
 
+    /**
+     * Gets the tasks of the completable quests that can be progressed by the given type, grouped by quest id.
+     */
+    public Map<String, List<QuestTask<?, ?, ?>>> getTasks(QuestsProgress progress, QuestTaskType<?> type) {
+        getQuests(progress);
+        return this.tasks.get(type);
+    }
+
+    /**
+     * Gets the tasks of the completable quests that can be progressed by the given type and input, grouped by quest id.
+     * For {@link KeyedQuestTaskType}s the tasks of that exact type only are included when they share a key with the
+     * input, the key index doesn't hold tasks of other types that are merely compatible so those are always included.
+     */
+    public <I> Map<String, List<QuestTask<?, ?, ?>>> getTasks(QuestsProgress progress, QuestTaskType<?> type, I input) {
+        Map<String, List<QuestTask<?, ?, ?>>> tasks = getTasks(progress, type);
+        if (tasks.isEmpty() || !(type instanceof KeyedQuestTaskType<?, ?, ?>)) return tasks;
+        KeyedQuestTaskType<I, Object, ?> keyed = ModUtils.cast(type);
+        Collection<Object> keys = keyed.inputKeys(input);
+        TaskKeyIndex<Object> index = QuestHandler.getTaskCache(keyed);
+        if (keys == null || index == null) return tasks;
+        Set<QuestTask<?, ?, ?>> indexed = index.get(keys);
+        Map<String, List<QuestTask<?, ?, ?>>> matching = new LinkedHashMap<>();
+        tasks.forEach((id, questTasks) -> {
+            for (QuestTask<?, ?, ?> task : questTasks) {
+                if (indexed.contains(task) || isCompatibleOnly(task, type)) {
+                    matching.computeIfAbsent(id, k -> new ArrayList<>()).add(task);
+                }
+            }
+        });
+        return matching;
+    }
+
+    /**
+     * @return true if the task, or one of the tasks in it, is compatible with the type without being of that type.
+     */
+    private static boolean isCompatibleOnly(QuestTask<?, ?, ?> task, QuestTaskType<?> type) {
+        if (task instanceof CompositeTask composite) {
+            for (QuestTask<?, ?, ?> child : composite.tasks().values()) {
+                if (isCompatibleOnly(child, type)) return true;
+            }
+            return false;
+        }
+        return task.type() != type && task.isCompatibleWith(type);
+    }
+
+    /**
+     * Rebuilds the completable quests from scratch.
+     */
     public void updateCompleteQuests(QuestsProgress progress, BiConsumer<String, Quest> onUnlocked) {
-        this.updated = true;
-        List<String> tempQuests = new ArrayList<>();
-        for (var entry : QuestHandler.quests().entrySet()) {
-            Quest quest = entry.getValue();
-            String id = entry.getKey();
-            if (progress.isComplete(id)) continue;
-            if (quest.tasks().isEmpty()) continue;
-            if (quest.dependencies().isEmpty()) {
-                tempQuests.add(id);
-                if (!this.quests.contains(id)) {
-                    onUnlocked.accept(id, quest);
+        long start = PerformanceMetrics.start();
+        if (this.revision != QuestHandler.revision()) {
+            // The quests themselves changed, so the indexed tasks can no longer be trusted.
+            this.revision = QuestHandler.revision();
+            this.tasks.clear();
+        }
+        Map<String, Quest> quests = QuestHandler.quests();
+        this.completed.clear();
+        this.remaining.clear();
+        for (String id : quests.keySet()) {
+            if (progress.isComplete(id)) {
+                this.completed.add(id);
+            }
+        }
+        Set<String> unlocked = new HashSet<>();
+        for (var entry : quests.entrySet()) {
+            int count = 0;
+            for (String dependency : entry.getValue().dependencies()) {
+                if (!this.completed.contains(dependency)) {
+                    count++;
                 }
-            } else {
-                boolean complete = true;
-                for (String dependency : quest.dependencies()) {
-                    if (!progress.isComplete(dependency)) {
-                        complete = false;
-                        break;
+            }
+            if (count > 0) {
+                this.remaining.put(entry.getKey(), count);
+            } else if (canUnlock(entry.getKey(), entry.getValue())) {
+                unlocked.add(entry.getKey());
+            }
+        }
+        for (String id : List.copyOf(this.quests)) {
+            if (!unlocked.contains(id)) {
+                lock(id);
+            }
+        }
+        for (String id : unlocked) {
+            unlock(id, quests.get(id), onUnlocked);
+        }
+        PerformanceMetrics.stop("unlocks.rebuild", start);
+    }
+
+    /**
+     * Updates the completable quests after the completion state of the given quests may have changed,
+     * only the changed quests and their direct dependents are looked at.
+     */
+    public void updateCompleteQuests(QuestsProgress progress, Collection<String> changed, BiConsumer<String, Quest> onUnlocked) {
+        if (this.revision != QuestHandler.revision()) {
+            this.updateCompleteQuests(progress, onUnlocked);
+            return;
+        }
+        long start = PerformanceMetrics.start();
+        for (String id : changed) {
+            boolean complete = progress.isComplete(id);
+            if (complete == this.completed.contains(id)) continue;
+            if (complete) {
+                this.completed.add(id);
+                lock(id);
+                for (String dependent : QuestHandler.getDependents(id)) {
+                    int count = this.remaining.getOrDefault(dependent, 0) - 1;
+                    if (count > 0) {
+                        this.remaining.put(dependent, count);
+                    } else {
+                        this.remaining.remove(dependent);
+                        tryUnlock(dependent, onUnlocked);
                     }
                 }
-                if (complete) {
-                    tempQuests.add(id);
-                    if (!this.quests.contains(id)) {
-                        onUnlocked.accept(id, quest);
-                    }
+            } else {
+                this.completed.remove(id);
+                for (String dependent : QuestHandler.getDependents(id)) {
+                    this.remaining.merge(dependent, 1, Integer::sum);
+                    lock(dependent);
+                }
+                if (!this.remaining.containsKey(id)) {
+                    tryUnlock(id, onUnlocked);
                 }
             }
         }
-        this.quests.clear();
-        this.quests.addAll(tempQuests);
+        PerformanceMetrics.stop("unlocks.update", start);
+    }
+
+    private boolean canUnlock(String id, Quest quest) {
+        return quest != null && !quest.tasks().isEmpty() && !this.completed.contains(id);
+    }
+
+    private void tryUnlock(String id, BiConsumer<String, Quest> onUnlocked) {
+        Quest quest = QuestHandler.get(id);
+        if (canUnlock(id, quest)) {
+            unlock(id, quest, onUnlocked);
+        }
+    }
+
+    private void unlock(String id, Quest quest, BiConsumer<String, Quest> onUnlocked) {
+        if (!this.tasks.contains(id)) {
+            this.tasks.add(id, quest);
+        }
+        if (this.quests.add(id)) {
+            onUnlocked.accept(id, quest);
+        }
+    }
+
+    private void lock(String id) {
+        if (this.quests.remove(id)) {
+            this.tasks.remove(id);
+        }
     }
 
     public void updateCompleteQuests(QuestsProgress progress) {
-        this.updateCompleteQuests(progress, (id, quest) -> {});
+        this.updateCompleteQuests(progress, (ServerPlayer) null);
     }
 
     public void updateCompleteQuests(QuestsProgress progress, @Nullable ServerPlayer player) {
+        this.updateCompleteQuests(progress, player, null, onUnlocked -> this.updateCompleteQuests(progress, onUnlocked));
+    }
+
+    public void updateCompleteQuests(QuestsProgress progress, Collection<String> changed, @Nullable ServerPlayer player) {
+        this.updateCompleteQuests(progress, player, changed, onUnlocked -> this.updateCompleteQuests(progress, changed, onUnlocked));
+    }
+
+    private void updateCompleteQuests(QuestsProgress progress, @Nullable ServerPlayer player, @Nullable Collection<String> changed, Consumer<BiConsumer<String, Quest>> updater) {
         List<UpdatedEntry> updatedQuests = new ArrayList<>();
+        FlightRecorderEvents.UnlockUpdate event = new FlightRecorderEvents.UnlockUpdate();
+        event.begin();
 
-        this.updateCompleteQuests(progress, (id, quest) -> {
+        updater.accept((id, quest) -> {
+            event.unlocked++;
             if (player == null) return;
             if (quest.settings().unlockNotification()) {
-                NetworkHandler.CHANNEL.sendToPlayer(new QuestUnlockedPacket(id), player);
+                ProgressOutbox.unlocked(player, id);
             }
             QuestProgress questProgress = progress.getProgress(id);
             if (questProgress.isComplete()) return;
@@ -86,6 +229,13 @@ public class CompletableQuests {
             if (entry.newProgress().isEmpty()) return;
             updatedQuests.add(entry);
         });
+        if (event.shouldCommit()) {
+            event.player = player == null ? "" : player.getGameProfile().getName();
+            event.full = changed == null;
+            event.changed = changed == null ? 0 : changed.size();
+            event.completable = this.quests.size();
+            event.commit();
+        }
 
         if (player == null) return;
         if (updatedQuests.isEmpty()) return;
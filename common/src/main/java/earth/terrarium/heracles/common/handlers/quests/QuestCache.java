@@ -0,0 +1,106 @@
+package earth.terrarium.heracles.common.handlers.quests;
+
+import com.google.common.hash.Hashing;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.api.rewards.QuestRewards;
+import earth.terrarium.heracles.api.tasks.QuestTasks;
+import net.minecraft.SharedConstants;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A binary snapshot of the compiled quests, each quest is stored as yabn alongside the size,
+ * modification time and hash of the file it was compiled from so unchanged files don't have to be parsed again.
+ * <p>
+ * The header holds a hash of the versions and quest types the quests were encoded with, a cache made with another
+ * version of the mod or the game, or with task and reward types added or removed, is thrown away.
+ */
+public final class QuestCache {
+
+    private static final int MAGIC = 0x48514331; // HQC1
+    private static final int VERSION = 2;
+
+    public static Map<String, Entry> read(Path file) {
+        if (!Files.isRegularFile(file)) return Map.of();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                Heracles.LOGGER.warn("Ignoring quest cache with unknown format");
+                return Map.of();
+            }
+            if (input.readLong() != schema()) {
+                Heracles.LOGGER.info("Ignoring quest cache made by another version, all quests will be parsed");
+                return Map.of();
+            }
+            int count = input.readInt();
+            Map<String, Entry> entries = new HashMap<>(count);
+            for (int i = 0; i < count; i++) {
+                String path = input.readUTF();
+                long size = input.readLong();
+                long modified = input.readLong();
+                long hash = input.readLong();
+                byte[] data = new byte[input.readInt()];
+                input.readFully(data);
+                entries.put(path, new Entry(size, modified, hash, data));
+            }
+            return entries;
+        } catch (Exception e) {
+            Heracles.LOGGER.warn("Failed to read quest cache, all quests will be parsed", e);
+            return Map.of();
+        }
+    }
+
+    public static void write(Path file, Map<String, Entry> entries) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(schema());
+                output.writeInt(entries.size());
+                for (var entry : entries.entrySet()) {
+                    Entry value = entry.getValue();
+                    output.writeUTF(entry.getKey());
+                    output.writeLong(value.size());
+                    output.writeLong(value.modified());
+                    output.writeLong(value.hash());
+                    output.writeInt(value.data().length);
+                    output.write(value.data());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            Heracles.LOGGER.warn("Failed to write quest cache", e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private static long schema() {
+        StringBuilder schema = new StringBuilder()
+            .append(Heracles.getVersion()).append('\n')
+            .append(SharedConstants.getCurrentVersion().getName()).append('\n');
+        QuestTasks.types().keySet().stream().map(ResourceLocation::toString).sorted().forEach(id -> schema.append(id).append(','));
+        schema.append('\n');
+        QuestRewards.types().keySet().stream().map(ResourceLocation::toString).sorted().forEach(id -> schema.append(id).append(','));
+        return hash(schema.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long hash(byte[] content) {
+        return Hashing.murmur3_128().hashBytes(content).asLong();
+    }
+
+    public record Entry(long size, long modified, long hash, byte[] data) {
+
+        public boolean matches(long size, long modified) {
+            return this.size == size && this.modified == modified;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package earth.terrarium.heracles.common.handlers.quests;
+
+import com.google.gson.JsonObject;
+import com.mojang.serialization.JsonOps;
+import com.teamresourceful.resourcefullib.common.lib.Constants;
+import com.teamresourceful.resourcefullib.common.utils.FileUtils;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.common.handlers.ServerConfig;
+import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
+import earth.terrarium.heracles.common.handlers.syncing.QuestSyncer;
+import earth.terrarium.heracles.common.network.NetworkHandler;
+import earth.terrarium.heracles.common.network.packets.quests.ClientboundAddQuestPacket;
+import earth.terrarium.heracles.common.network.packets.quests.ClientboundRemoveQuestPacket;
+import earth.terrarium.heracles.common.network.packets.quests.ClientboundUpdateQuestPacket;
+import earth.terrarium.heracles.common.network.packets.quests.data.NetworkQuestData;
+import net.minecraft.resources.RegistryOps;
+import net.minecraft.server.MinecraftServer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the quests folder for files changed outside the game, like by an external editor or a git pull, when it is
+ * enabled in the server config. Changes are collected until the files have been quiet for a moment, then only the
+ * changed files are parsed again and applied like edits from the editor, so players are only sent the changed quests.
+ */
+public final class QuestFileWatcher {
+
+    private static final long DEBOUNCE = 500;
+
+    private static WatchService service;
+
+    public static void start(MinecraftServer server) {
+        stop();
+        if (!ServerConfig.watchQuests) return;
+        Path questsPath = Heracles.getConfigPath().resolve(Heracles.MOD_ID).resolve("quests");
+        try {
+            Files.createDirectories(questsPath);
+            WatchService watcher = questsPath.getFileSystem().newWatchService();
+            Map<WatchKey, Path> keys = new HashMap<>();
+            register(watcher, keys, questsPath);
+            service = watcher;
+            Thread thread = new Thread(() -> watch(server, watcher, keys), "Heracles Quest Watcher");
+            thread.setDaemon(true);
+            thread.start();
+            Heracles.LOGGER.info("Watching {} for quest changes", questsPath);
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Failed to watch quest files", e);
+        }
+    }
+
+    public static void stop() {
+        if (service == null) return;
+        try {
+            service.close();
+        } catch (Exception ignored) {}
+        service = null;
+    }
+
+    private static void register(WatchService watcher, Map<WatchKey, Path> keys, Path root) throws Exception {
+        try (Stream<Path> directories = Files.walk(root)) {
+            for (Path directory : directories.filter(Files::isDirectory).toList()) {
+                keys.put(directory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), directory);
+            }
+        }
+    }
+
+    private static void watch(MinecraftServer server, WatchService watcher, Map<WatchKey, Path> keys) {
+        Set<Path> changed = new HashSet<>();
+        try {
+            while (true) {
+                WatchKey key = changed.isEmpty() ? watcher.take() : watcher.poll(DEBOUNCE, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    apply(server, changed);
+                    changed = new HashSet<>();
+                    continue;
+                }
+                Path directory = keys.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        Heracles.LOGGER.warn("Missed some quest file changes, use /reload to load them");
+                        continue;
+                    }
+                    if (directory == null) continue;
+                    Path path = directory.resolve((Path) event.context());
+                    if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                        register(watcher, keys, path);
+                        // Files in a folder that was moved in don't get events of their own.
+                        try (Stream<Path> files = Files.walk(path)) {
+                            files.filter(Files::isRegularFile).filter(FileUtils::isJson).forEach(changed::add);
+                        }
+                    } else if (FileUtils.isJson(path)) {
+                        changed.add(path);
+                    }
+                }
+                if (!key.reset()) {
+                    keys.remove(key);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignored) {
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Stopped watching quest files", e);
+        }
+    }
+
+    private static void apply(MinecraftServer server, Set<Path> changed) {
+        Map<Path, Quest> parsed = new HashMap<>();
+        List<Path> deleted = new ArrayList<>();
+        for (Path file : changed) {
+            if (!Files.isRegularFile(file)) {
+                deleted.add(file);
+                continue;
+            }
+            String id = getId(file);
+            try {
+                byte[] data = Files.readAllBytes(file);
+                if (QuestWriter.isOwnWrite(file, data)) continue;
+                JsonObject json = Constants.PRETTY_GSON.fromJson(new String(data, StandardCharsets.UTF_8), JsonObject.class);
+                Quest quest = Quest.CODEC.parse(RegistryOps.create(JsonOps.INSTANCE, Heracles.getRegistryAccess()), json)
+                    .getOrThrow(false, Heracles.LOGGER::error);
+                quest.dependencies().remove(id); // Remove self from dependencies
+                parsed.put(file, quest);
+            } catch (Exception e) {
+                Heracles.LOGGER.error("Failed to load changed quest " + id, e);
+            }
+        }
+        if (parsed.isEmpty() && deleted.isEmpty()) return;
+        server.execute(() -> applyChanges(server, parsed, deleted));
+    }
+
+    private static void applyChanges(MinecraftServer server, Map<Path, Quest> parsed, List<Path> deleted) {
+        int changes = 0;
+        for (Path file : deleted) {
+            String id = getId(file);
+            // Files deleted by saving, like when a quest moved folders, are no longer the file of their quest.
+            if (QuestHandler.get(id) == null || !file.equals(QuestHandler.getQuestFile(id))) continue;
+            QuestHandler.unload(id);
+            NetworkHandler.sendToAllPlayers(new ClientboundRemoveQuestPacket(id), server);
+            changes++;
+        }
+        Set<String> loading = new HashSet<>();
+        parsed.keySet().forEach(file -> loading.add(getId(file)));
+        parsed.values().forEach(quest -> QuestHandler.removeMissingDependencies(quest, loading));
+        for (var entry : parsed.entrySet()) {
+            String id = getId(entry.getKey());
+            Quest quest = QuestHandler.get(id);
+            if (quest == null) {
+                QuestHandler.reload(id, entry.getValue(), entry.getKey());
+                NetworkHandler.sendToAllPlayers(new ClientboundAddQuestPacket(id, entry.getValue()), server);
+            } else {
+                NetworkQuestData data = NetworkQuestData.of(entry.getValue());
+                data.update(quest);
+                QuestHandler.reload(id, quest, entry.getKey());
+                NetworkHandler.sendToAllPlayers(new ClientboundUpdateQuestPacket(id, data), server);
+            }
+            changes++;
+        }
+        if (changes == 0) return;
+        Heracles.LOGGER.info("Applied {} quest file changes", changes);
+        QuestProgressHandler.read(server).updatePossibleQuests();
+        QuestSyncer.syncDisplays(server);
+    }
+
+    private static String getId(Path file) {
+        return file.getFileName().toString().replace(".json", "");
+    }
+}
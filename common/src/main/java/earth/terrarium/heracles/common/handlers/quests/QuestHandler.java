@@ -1,81 +1,76 @@
 package earth.terrarium.heracles.common.handlers.quests;
 
 import com.google.common.collect.HashBiMap;
-import com.google.common.collect.Sets;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.mojang.serialization.JsonOps;
-import com.teamresourceful.resourcefullib.common.lib.Constants;
-import com.teamresourceful.resourcefullib.common.utils.FileUtils;
-import com.teamresourceful.resourcefullib.common.utils.Scheduling;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.api.quests.Quest;
 import earth.terrarium.heracles.api.tasks.CacheableQuestTaskType;
 import earth.terrarium.heracles.api.tasks.QuestTask;
 import earth.terrarium.heracles.api.tasks.QuestTaskType;
+import earth.terrarium.heracles.api.tasks.QuestTasks;
 import earth.terrarium.heracles.common.utils.ModUtils;
 import net.minecraft.core.RegistryAccess;
-import net.minecraft.resources.RegistryOps;
 import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.io.Reader;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 
 public class QuestHandler {
 
     private static final Map<String, Quest> QUESTS = HashBiMap.create();
-    private static final Set<String> QUEST_KEYS = Sets.newConcurrentHashSet();
+    private static final Map<String, QuestFile> QUEST_FILES = new ConcurrentHashMap<>();
     private static final List<String> GROUPS = new ArrayList<>();
     private static final Map<ResourceLocation, Object> TASK_CACHES = new HashMap<>();
+    private static final Map<ResourceLocation, Integer> TASK_TYPE_USES = new HashMap<>();
+    private static final Map<String, CachedTasks> CACHED_TASKS = new HashMap<>();
+    private static final Map<String, Set<String>> DEPENDENTS = new HashMap<>();
+    private static final Map<String, Integer> REVISIONS = new HashMap<>();
+    private static int dependentsRevision = -1;
     private static Path lastPath;
-
-    private static final Map<String, ScheduledFuture<?>> SAVING_FUTURES = new HashMap<>();
-    private static ScheduledFuture<?> delayedDeletion;
+    private static int revision;
 
     public static boolean failedToLoad;
 
-    public static void load(RegistryAccess access, Path path) {
-        failedToLoad = false;
+    /**
+     * Reads, parses and decodes all quest files on the given executor without touching the current quests,
+     * the result has to be passed to {@link #apply(Path, QuestLoader.Result)} to be used.
+     */
+    public static CompletableFuture<QuestLoader.Result> loadAsync(RegistryAccess access, Path path, Executor executor) {
         Heracles.LOGGER.info("Loading quests");
+        return QuestLoader.load(access, path.resolve(Heracles.MOD_ID), executor);
+    }
+
+    /**
+     * Swaps in the quests of a finished load, quest files that failed to load are left out. If the quest files couldn't
+     * be read at all the current quests are kept.
+     */
+    public static void apply(Path path, QuestLoader.Result result) {
+        failedToLoad = false;
         Path heraclesPath = path.resolve(Heracles.MOD_ID);
         QuestHandler.lastPath = heraclesPath;
-        Path questsPath = heraclesPath.resolve("quests");
-        Map<String, Quest> tempQuests = new HashMap<>();
-        try {
-            Files.createDirectories(questsPath);
-            FileUtils.streamFilesAndParse(questsPath, (reader, id) -> load(access, reader, id, tempQuests), FileUtils::isJson);
-        } catch (Exception e) {
-            Heracles.LOGGER.error("Failed to load quests", e);
+        if (result.failed()) {
             Heracles.LOGGER.error("Quests reverted to last known good state");
             failedToLoad = true;
             return;
         }
         QUESTS.clear();
-        QUESTS.putAll(tempQuests);
-        QUEST_KEYS.addAll(QUESTS.keySet());
+        QUESTS.putAll(result.quests());
+        revision++;
+        REVISIONS.clear();
+        QUESTS.keySet().forEach(id -> REVISIONS.put(id, revision));
+        QUEST_FILES.clear();
+        result.files().forEach((id, file) -> QUEST_FILES.put(id, new QuestFile(file, Set.copyOf(QUESTS.get(id).display().groups().keySet()))));
         for (Quest value : QUESTS.values()) {
             value.dependencies().removeIf(Predicate.not(QUESTS::containsKey));
         }
         loadGroups(heraclesPath.resolve("groups.txt").toFile());
-        updateTaskCache();
-    }
-
-    private static void load(RegistryAccess access, Reader reader, String id, Map<String, Quest> quests) {
-        try {
-            JsonObject element = Constants.PRETTY_GSON.fromJson(reader, JsonObject.class);
-            Quest quest = Quest.CODEC.parse(RegistryOps.create(JsonOps.INSTANCE, access), element).getOrThrow(false, Heracles.LOGGER::error);
-            quest.dependencies().remove(id); // Remove self from dependencies
-            quests.put(id, quest);
-        } catch (Exception e) {
-            Heracles.LOGGER.error("Failed to load quest " + id, e);
-        }
+        rebuildTaskCache();
     }
 
     private static void loadGroups(File file) {
@@ -87,39 +82,39 @@ public class QuestHandler {
                 Heracles.LOGGER.error("Failed to load quest groups", e);
             }
         }
-        for (Quest value : QUESTS.values()) {
-            for (String s : value.display().groups().keySet()) {
-                if (!GROUPS.contains(s)) {
-                    GROUPS.add(s);
-                }
+        QUESTS.values().forEach(QuestHandler::registerGroups);
+    }
+
+    private static void registerGroups(Quest quest) {
+        for (String s : quest.display().groups().keySet()) {
+            if (!GROUPS.contains(s)) {
+                GROUPS.add(s);
             }
         }
     }
 
     public static void markDirty(String id) {
-        try {
-            if (lastPath == null) {
-                Heracles.LOGGER.error("Failed to mark quest dirty, last path is null");
-                return;
-            }
-            Quest quest = QUESTS.get(id);
-            updateTaskCache();
-            Path questsPath = lastPath.resolve("quests");
-            File file = new File(questsPath.toFile(), pickQuestPath(quest) + "/" + id + ".json");
-            JsonElement json = Quest.CODEC.encodeStart(RegistryOps.create(JsonOps.INSTANCE, Heracles.getRegistryAccess()), quest)
-                .getOrThrow(false, Heracles.LOGGER::error);
-            if (SAVING_FUTURES.containsKey(id)) {
-                SAVING_FUTURES.get(id).cancel(true);
+        revision++;
+        REVISIONS.put(id, revision);
+        if (lastPath == null) {
+            Heracles.LOGGER.error("Failed to mark quest dirty, last path is null");
+            return;
+        }
+        Quest quest = QUESTS.get(id);
+        if (quest == null) return;
+        updateTaskCache(id);
+        QuestFile file = QUEST_FILES.get(id);
+        Set<String> groups = quest.display().groups().keySet();
+        // The folder is only picked again when the groups change, so quests stay where they were loaded from otherwise.
+        if (file == null || !file.groups().equals(groups)) {
+            Path path = lastPath.resolve("quests/" + pickQuestPath(quest) + "/" + id + ".json");
+            if (file != null && !file.path().equals(path)) {
+                QuestWriter.move(id, file.path());
             }
-            SAVING_FUTURES.put(id, Scheduling.schedule(() -> {
-                try {
-                    file.getParentFile().mkdirs();
-                    org.apache.commons.io.FileUtils.write(file, Constants.PRETTY_GSON.toJson(json), StandardCharsets.UTF_8);
-                } catch (Exception e) {
-                    Heracles.LOGGER.error("Failed to save quest " + id, e);
-                }
-            }, 1500, TimeUnit.MILLISECONDS));
-        } catch (Exception ignored) {}
+            file = new QuestFile(path, Set.copyOf(groups));
+            QUEST_FILES.put(id, file);
+        }
+        QuestWriter.save(id, quest, file.path());
     }
 
     private static String pickQuestPath(Quest quest) {
@@ -137,6 +132,10 @@ public class QuestHandler {
     }
 
     public static Path getQuestPath(Quest quest, String id) {
+        QuestFile file = QUEST_FILES.get(id);
+        if (file != null) {
+            return file.path();
+        }
         return lastPath.resolve("quests/" + pickQuestPath(quest) + "/" + id + ".json");
     }
 
@@ -158,7 +157,6 @@ public class QuestHandler {
 
     public static void upload(String id, Quest quest) {
         QUESTS.put(id, quest);
-        QUEST_KEYS.add(id);
         markDirty(id);
     }
 
@@ -172,40 +170,103 @@ public class QuestHandler {
             }
         }
         QUESTS.remove(questId);
-        updateTaskCache();
-        QUEST_KEYS.remove(questId);
-        if (SAVING_FUTURES.containsKey(questId)) SAVING_FUTURES.get(questId).cancel(true);
-        SAVING_FUTURES.remove(questId);
-        if (delayedDeletion != null) {
-            delayedDeletion.cancel(true);
-        }
-        if (lastPath == null) {
-            Heracles.LOGGER.error("Failed to remove dead quest files, last path is null");
-            return;
+        revision++;
+        REVISIONS.remove(questId);
+        updateTaskCache(questId);
+        QuestFile file = QUEST_FILES.remove(questId);
+        if (file != null) {
+            QuestWriter.delete(questId, file.path());
+        } else {
+            QuestWriter.cancel(questId);
         }
-        Path questsPath = lastPath.resolve("quests");
-        delayedDeletion = Scheduling.schedule(() -> {
-            try {
-                try (var files = Files.walk(questsPath)) {
-                    files.filter(Predicate.not(Files::isDirectory))
-                        .filter(FileUtils::isJson)
-                        .forEach(path -> {
-                            String id = path.getFileName().toString().replace(".json", "");
-                            if (!QUEST_KEYS.contains(id)) {
-                                path.toFile().delete();
-                            }
-                        });
-                }
-            } catch (Exception e) {
-                Heracles.LOGGER.error("Failed to remove dead quest files", e);
+    }
+
+    /**
+     * Puts a quest that was changed on disk, unlike {@link #upload(String, Quest)} the quest isn't saved again.
+     * Like a full load the groups of the quest are added to the groups, its dependencies have to be checked with
+     * {@link #removeMissingDependencies(Quest, Set)} before as quests changed together can depend on each other.
+     */
+    public static void reload(String id, Quest quest, Path file) {
+        QuestWriter.cancel(id);
+        registerGroups(quest);
+        QUESTS.put(id, quest);
+        QUEST_FILES.put(id, new QuestFile(file, Set.copyOf(quest.display().groups().keySet())));
+        revision++;
+        REVISIONS.put(id, revision);
+        updateTaskCache(id);
+    }
+
+    /**
+     * Removes a quest whose file was deleted on disk, like a reload the quests depending on it are not saved.
+     */
+    public static void unload(String id) {
+        QuestWriter.cancel(id);
+        revision++;
+        for (var entry : QUESTS.entrySet()) {
+            if (entry.getValue().dependencies().remove(id)) {
+                REVISIONS.put(entry.getKey(), revision);
             }
-        }, 1500, TimeUnit.MILLISECONDS);
+        }
+        QUESTS.remove(id);
+        QUEST_FILES.remove(id);
+        REVISIONS.remove(id);
+        updateTaskCache(id);
+    }
+
+    /**
+     * Removes the dependencies on quests that don't exist, like a full load does.
+     *
+     * @param loading quests that are about to be loaded, which don't count as missing.
+     */
+    public static void removeMissingDependencies(Quest quest, Set<String> loading) {
+        quest.dependencies().removeIf(dependency -> !QUESTS.containsKey(dependency) && !loading.contains(dependency));
+    }
+
+    /**
+     * @return the file the quest is saved to, or null if it hasn't been saved yet.
+     */
+    @Nullable
+    public static Path getQuestFile(String id) {
+        QuestFile file = QUEST_FILES.get(id);
+        return file == null ? null : file.path();
     }
 
     public static Map<String, Quest> quests() {
         return QUESTS;
     }
 
+    /**
+     * A counter that changes every time a quest is loaded, edited or removed,
+     * used to invalidate anything derived from the quests' tasks.
+     */
+    public static int revision() {
+        return revision;
+    }
+
+    /**
+     * @return the {@link #revision()} the quest was last loaded or edited in, used to keep anything derived from a
+     * single quest until that quest changes.
+     */
+    public static int revision(String id) {
+        return REVISIONS.getOrDefault(id, -1);
+    }
+
+    /**
+     * Gets the quests that directly depend on the given quest.
+     */
+    public static Set<String> getDependents(String id) {
+        if (dependentsRevision != revision) {
+            dependentsRevision = revision;
+            DEPENDENTS.clear();
+            for (var entry : QUESTS.entrySet()) {
+                for (String dependency : entry.getValue().dependencies()) {
+                    DEPENDENTS.computeIfAbsent(dependency, k -> new HashSet<>()).add(entry.getKey());
+                }
+            }
+        }
+        return DEPENDENTS.getOrDefault(id, Set.of());
+    }
+
     public static List<String> groups() {
         if (GROUPS.isEmpty()) {
             GROUPS.add("Main");
@@ -214,19 +275,75 @@ public class QuestHandler {
         return GROUPS;
     }
 
-    private static void updateTaskCache() {
+    private static void rebuildTaskCache() {
         TASK_CACHES.clear();
-        for (Quest quest : QUESTS.values()) {
-            for (QuestTask<?, ?, ?> task : quest.tasks().values()) {
-                if (TASK_CACHES.containsKey(task.type().id())) continue;
-                if (task.type() instanceof CacheableQuestTaskType<?, ?> cacheable) {
-                    Object cache = cacheable.cache(QUESTS.values());
-                    TASK_CACHES.put(cacheable.id(), cache);
-                } else {
-                    TASK_CACHES.put(task.type().id(), null);
+        TASK_TYPE_USES.clear();
+        CACHED_TASKS.clear();
+        QUESTS.forEach(QuestHandler::trackTaskTypes);
+        for (ResourceLocation type : TASK_TYPE_USES.keySet()) {
+            TASK_CACHES.put(type, createTaskCache(type));
+        }
+    }
+
+    /**
+     * Updates the task caches for a quest that was added, edited or removed, only the changed quest is
+     * added to and removed from the caches.
+     */
+    private static void updateTaskCache(String id) {
+        CachedTasks old = CACHED_TASKS.remove(id);
+        if (old != null) {
+            for (var entry : TASK_CACHES.entrySet()) {
+                if (entry.getValue() != null && QuestTasks.get(entry.getKey()) instanceof CacheableQuestTaskType<?, ?> cacheable) {
+                    entry.setValue(removeFromTaskCache(cacheable, entry.getValue(), old.quest()));
+                }
+            }
+            for (ResourceLocation type : old.types()) {
+                if (TASK_TYPE_USES.merge(type, -1, Integer::sum) <= 0) {
+                    TASK_TYPE_USES.remove(type);
+                    TASK_CACHES.remove(type);
                 }
             }
         }
+        Quest quest = QUESTS.get(id);
+        if (quest == null) return;
+        for (var entry : TASK_CACHES.entrySet()) {
+            if (entry.getValue() != null && QuestTasks.get(entry.getKey()) instanceof CacheableQuestTaskType<?, ?> cacheable) {
+                entry.setValue(addToTaskCache(cacheable, entry.getValue(), quest));
+            }
+        }
+        // Caches of types the quest starts using are built with the quest already in them.
+        for (ResourceLocation type : trackTaskTypes(id, quest)) {
+            if (!TASK_CACHES.containsKey(type)) {
+                TASK_CACHES.put(type, createTaskCache(type));
+            }
+        }
+    }
+
+    private static Set<ResourceLocation> trackTaskTypes(String id, Quest quest) {
+        Set<ResourceLocation> types = new HashSet<>();
+        for (QuestTask<?, ?, ?> task : quest.tasks().values()) {
+            types.add(task.type().id());
+        }
+        for (ResourceLocation type : types) {
+            TASK_TYPE_USES.merge(type, 1, Integer::sum);
+        }
+        CACHED_TASKS.put(id, new CachedTasks(quest, types));
+        return types;
+    }
+
+    private static Object createTaskCache(ResourceLocation type) {
+        if (QuestTasks.get(type) instanceof CacheableQuestTaskType<?, ?> cacheable) {
+            return cacheable.cache(QUESTS.values());
+        }
+        return null;
+    }
+
+    private static <C> C addToTaskCache(CacheableQuestTaskType<?, C> type, Object cache, Quest quest) {
+        return type.add(ModUtils.cast(cache), quest, QUESTS.values());
+    }
+
+    private static <C> C removeFromTaskCache(CacheableQuestTaskType<?, C> type, Object cache, Quest quest) {
+        return type.remove(ModUtils.cast(cache), quest, QUESTS.values());
     }
 
     public static <T> T getTaskCache(CacheableQuestTaskType<?, T> type) {
@@ -236,4 +353,8 @@ public class QuestHandler {
     public static boolean isTaskUsed(QuestTaskType<?> type) {
         return TASK_CACHES.containsKey(type.id());
     }
+
+    private record CachedTasks(Quest quest, Set<ResourceLocation> types) {}
+
+    private record QuestFile(Path path, Set<String> groups) {}
 }
@@ -0,0 +1,214 @@
+package earth.terrarium.heracles.common.handlers.quests;
+
+import com.google.gson.JsonObject;
+import com.mojang.serialization.JsonOps;
+import com.teamresourceful.resourcefullib.common.codecs.yabn.YabnOps;
+import com.teamresourceful.resourcefullib.common.lib.Constants;
+import com.teamresourceful.resourcefullib.common.utils.FileUtils;
+import com.teamresourceful.yabn.YabnParser;
+import com.teamresourceful.yabn.elements.YabnElement;
+import com.teamresourceful.yabn.reader.ArrayByteReader;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.common.handlers.ServerConfig;
+import earth.terrarium.heracles.common.handlers.metrics.FlightRecorderEvents;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.resources.RegistryOps;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Loads quest files in parallel, each file is read, parsed and decoded as its own task on the given executor.
+ * When the quest cache is enabled, files that haven't changed since the last load are decoded from the {@link QuestCache} instead.
+ * <p>
+ * A file that fails to load only leaves out its own quest, the load only fails as a whole if the files can't be found.
+ */
+public final class QuestLoader {
+
+    private static final String CACHE_FILE = ".quest_cache.bin";
+
+    public static CompletableFuture<Result> load(RegistryAccess access, Path heraclesPath, Executor executor) {
+        long start = System.nanoTime();
+        FlightRecorderEvents.QuestLoad event = new FlightRecorderEvents.QuestLoad();
+        event.begin();
+        Path questsPath = heraclesPath.resolve("quests");
+        Path cachePath = ServerConfig.questCache ? heraclesPath.resolve(CACHE_FILE) : null;
+        return CompletableFuture.supplyAsync(() -> findFiles(questsPath), executor)
+            .thenCompose(files -> {
+                Map<String, QuestCache.Entry> cache = cachePath == null ? Map.of() : QuestCache.read(cachePath);
+                Timings timings = new Timings();
+                List<CompletableFuture<LoadedQuest>> futures = new ArrayList<>(files.size());
+                for (Path file : files) {
+                    String key = questsPath.relativize(file).toString().replace('\\', '/');
+                    futures.add(CompletableFuture.supplyAsync(() -> load(access, file, cachePath != null, cache.get(key), timings), executor)
+                        .exceptionally(throwable -> {
+                            Heracles.LOGGER.error("Failed to load quest file " + file, throwable);
+                            return new LoadedQuest(key, null, null);
+                        }));
+                }
+                return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .thenApply(v -> collect(questsPath, cachePath, cache, files, futures, timings, start, event));
+            })
+            .exceptionally(throwable -> {
+                Heracles.LOGGER.error("Failed to load quests", throwable);
+                return new Result(Map.of(), Map.of(), true);
+            });
+    }
+
+    private static List<Path> findFiles(Path questsPath) {
+        try {
+            Files.createDirectories(questsPath);
+            try (Stream<Path> files = Files.walk(questsPath)) {
+                return files.filter(Files::isRegularFile).filter(FileUtils::isJson).toList();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to find quest files", e);
+        }
+    }
+
+    private static LoadedQuest load(RegistryAccess access, Path file, boolean caching, QuestCache.Entry cached, Timings timings) {
+        String id = file.getFileName().toString().replace(".json", "");
+        try {
+            if (!caching) {
+                long start = System.nanoTime();
+                String content = Files.readString(file, StandardCharsets.UTF_8);
+                timings.read.addAndGet(System.nanoTime() - start);
+                return new LoadedQuest(id, parse(access, id, content, timings), null);
+            }
+
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long modified = attributes.lastModifiedTime().toMillis();
+            if (cached != null && cached.matches(size, modified)) {
+                Quest quest = decode(access, id, cached, timings);
+                if (quest != null) return new LoadedQuest(id, quest, cached);
+            }
+
+            long start = System.nanoTime();
+            byte[] bytes = Files.readAllBytes(file);
+            timings.read.addAndGet(System.nanoTime() - start);
+            long hash = QuestCache.hash(bytes);
+            if (cached != null && cached.hash() == hash) {
+                QuestCache.Entry entry = new QuestCache.Entry(size, modified, hash, cached.data());
+                Quest quest = decode(access, id, entry, timings);
+                if (quest != null) return new LoadedQuest(id, quest, entry);
+            }
+
+            Quest quest = parse(access, id, new String(bytes, StandardCharsets.UTF_8), timings);
+            return new LoadedQuest(id, quest, encode(access, id, quest, size, modified, hash));
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Failed to load quest " + id, e);
+            return new LoadedQuest(id, null, null);
+        }
+    }
+
+    private static Quest parse(RegistryAccess access, String id, String content, Timings timings) {
+        long start = System.nanoTime();
+        JsonObject element = Constants.PRETTY_GSON.fromJson(content, JsonObject.class);
+        long parsed = System.nanoTime();
+        Quest quest = Quest.CODEC.parse(RegistryOps.create(JsonOps.INSTANCE, access), element).getOrThrow(false, Heracles.LOGGER::error);
+        timings.parse.addAndGet(parsed - start);
+        timings.decode.addAndGet(System.nanoTime() - parsed);
+        quest.dependencies().remove(id); // Remove self from dependencies
+        return quest;
+    }
+
+    private static Quest decode(RegistryAccess access, String id, QuestCache.Entry entry, Timings timings) {
+        long start = System.nanoTime();
+        try {
+            YabnElement element = YabnParser.parse(new ArrayByteReader(entry.data()));
+            Quest quest = Quest.CODEC.parse(RegistryOps.create(YabnOps.COMPRESSED, access), element).result().orElse(null);
+            if (quest == null) return null;
+            quest.dependencies().remove(id);
+            timings.cached.incrementAndGet();
+            return quest;
+        } catch (Exception e) {
+            Heracles.LOGGER.warn("Failed to decode cached quest {}, parsing it instead", id);
+            return null;
+        } finally {
+            timings.decode.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private static QuestCache.Entry encode(RegistryAccess access, String id, Quest quest, long size, long modified, long hash) {
+        return Quest.CODEC.encodeStart(RegistryOps.create(YabnOps.COMPRESSED, access), quest)
+            .result()
+            .map(element -> new QuestCache.Entry(size, modified, hash, element.toFullData()))
+            .orElseGet(() -> {
+                Heracles.LOGGER.warn("Failed to encode quest {} for the quest cache", id);
+                return null;
+            });
+    }
+
+    private static Result collect(Path questsPath, Path cachePath, Map<String, QuestCache.Entry> previous, List<Path> files, List<CompletableFuture<LoadedQuest>> futures, Timings timings, long start, FlightRecorderEvents.QuestLoad event) {
+        Map<String, Quest> quests = new HashMap<>();
+        Map<String, Path> questFiles = new HashMap<>();
+        Map<String, QuestCache.Entry> cache = new HashMap<>();
+        int failed = 0;
+        boolean changed = false;
+        for (int i = 0; i < futures.size(); i++) {
+            LoadedQuest loaded = futures.get(i).join();
+            if (loaded.quest() == null) {
+                failed++;
+                continue;
+            }
+            quests.put(loaded.id(), loaded.quest());
+            questFiles.put(loaded.id(), files.get(i));
+            if (loaded.entry() != null) {
+                String key = questsPath.relativize(files.get(i)).toString().replace('\\', '/');
+                cache.put(key, loaded.entry());
+                changed |= previous.get(key) != loaded.entry();
+            }
+        }
+        Heracles.LOGGER.info(
+            "Loaded {} quests ({} from cache) in {}ms (read {}ms, parse {}ms, decode {}ms summed across threads)",
+            quests.size(), timings.cached.get(), toMillis(System.nanoTime() - start),
+            toMillis(timings.read.get()), toMillis(timings.parse.get()), toMillis(timings.decode.get())
+        );
+        if (event.shouldCommit()) {
+            event.files = files.size();
+            event.quests = quests.size();
+            event.cached = timings.cached.get();
+            event.failed = failed;
+            event.commit();
+        }
+        if (failed > 0) {
+            Heracles.LOGGER.error("Failed to load {} quest files, their quests were left out", failed);
+        }
+        // Files that failed aren't in the cache, so they are parsed again on the next load.
+        if (cachePath != null && (changed || previous.size() != cache.size())) {
+            QuestCache.write(cachePath, cache);
+        }
+        return new Result(quests, questFiles, false);
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * @param files  The file each quest was loaded from.
+     * @param failed If the quest files couldn't be found, files that failed to load on their own don't fail the load.
+     */
+    public record Result(Map<String, Quest> quests, Map<String, Path> files, boolean failed) {}
+
+    private record LoadedQuest(String id, Quest quest, QuestCache.Entry entry) {}
+
+    private static class Timings {
+
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong parse = new AtomicLong();
+        private final AtomicLong decode = new AtomicLong();
+        private final AtomicInteger cached = new AtomicInteger();
+    }
+}
@@ -0,0 +1,144 @@
+package earth.terrarium.heracles.common.handlers.quests;
+
+import com.google.gson.JsonElement;
+import com.mojang.serialization.JsonOps;
+import com.teamresourceful.resourcefullib.common.lib.Constants;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.api.quests.Quest;
+import net.minecraft.resources.RegistryOps;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves edited quests in the background on its own thread. Edits to a quest within the delay are written once. Quests
+ * are encoded when the save is queued as they are edited on the server thread, only printing and writing the json is
+ * left to the writer thread.
+ * <p>
+ * Quests are written to a temporary file that is then moved over the old file, so a crash mid write can't leave a
+ * truncated quest behind.
+ */
+public final class QuestWriter {
+
+    private static final long DELAY = 1500;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Heracles Quest Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<String, Runnable> PENDING = new ConcurrentHashMap<>();
+    private static final Map<String, Set<Path>> STALE = new ConcurrentHashMap<>();
+    private static final Map<Path, Long> WRITTEN = new ConcurrentHashMap<>();
+
+    /**
+     * Saves the quest to the file after the delay, replacing the pending save of the quest if there is one.
+     */
+    public static void save(String id, Quest quest, Path file) {
+        JsonElement json = Quest.CODEC.encodeStart(RegistryOps.create(JsonOps.INSTANCE, Heracles.getRegistryAccess()), quest)
+            .resultOrPartial(error -> Heracles.LOGGER.error("Failed to encode quest {}: {}", id, error))
+            .orElse(null);
+        if (json == null) return;
+        submit(id, () -> write(id, json, file));
+    }
+
+    /**
+     * @return true if the data is what was last written to the file, so changes to files from saving can be told apart
+     * from changes made outside the game.
+     */
+    public static boolean isOwnWrite(Path file, byte[] data) {
+        Long hash = WRITTEN.get(file);
+        return hash != null && hash == QuestCache.hash(data);
+    }
+
+    public static void cancel(String id) {
+        PENDING.remove(id);
+    }
+
+    /**
+     * Marks the old file of a quest that moved folders, it is deleted once the quest is saved to its new file.
+     */
+    public static void move(String id, Path from) {
+        STALE.merge(id, Set.of(from), QuestWriter::union);
+    }
+
+    /**
+     * Deletes the file of a removed quest after the delay, replacing the pending save of the quest if there is one.
+     */
+    public static void delete(String id, Path file) {
+        move(id, file);
+        submit(id, () -> deleteStale(id, null));
+    }
+
+    /**
+     * Runs all pending saves right away and waits for them, used when the server stops.
+     */
+    public static void flush() {
+        if (PENDING.isEmpty()) return;
+        try {
+            EXECUTOR.submit(() -> List.copyOf(PENDING.keySet()).forEach(QuestWriter::run)).get();
+        } catch (Exception e) {
+            Heracles.LOGGER.error("Failed to save pending quests", e);
+        }
+    }
+
+    private static void submit(String key, Runnable task) {
+        if (PENDING.put(key, task) == null) {
+            EXECUTOR.schedule(() -> run(key), DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void run(String key) {
+        Runnable task = PENDING.remove(key);
+        if (task != null) {
+            task.run();
+        }
+    }
+
+    private static void write(String id, JsonElement json, Path file) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            byte[] data = Constants.PRETTY_GSON.toJson(json).getBytes(StandardCharsets.UTF_8);
+            Files.write(temp, data);
+            WRITTEN.put(file, QuestCache.hash(data));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteStale(id, file);
+        } catch (Exception e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (Exception ignored) {}
+            Heracles.LOGGER.error("Failed to save quest " + id, e);
+        }
+    }
+
+    private static void deleteStale(String id, @Nullable Path keep) {
+        Set<Path> files = STALE.remove(id);
+        if (files == null) return;
+        for (Path file : files) {
+            if (file.equals(keep)) continue;
+            try {
+                Files.deleteIfExists(file);
+            } catch (Exception e) {
+                Heracles.LOGGER.error("Failed to delete quest file " + file, e);
+            }
+        }
+    }
+
+    private static Set<Path> union(Set<Path> a, Set<Path> b) {
+        Set<Path> union = new HashSet<>(a);
+        union.addAll(b);
+        return Set.copyOf(union);
+    }
+}
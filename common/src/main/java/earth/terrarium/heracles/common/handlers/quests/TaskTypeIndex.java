@@ -0,0 +1,60 @@
+package earth.terrarium.heracles.common.handlers.quests;
+
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.api.tasks.QuestTask;
+import earth.terrarium.heracles.api.tasks.QuestTaskType;
+
+import java.util.*;
+
+/**
+ * Indexes the tasks of a set of quests by the task types they can be progressed by,
+ * so an event only has to look at the tasks that can react to it.
+ */
+public class TaskTypeIndex {
+
+    private final Map<QuestTaskType<?>, Map<String, List<QuestTask<?, ?, ?>>>> tasks = new HashMap<>();
+    private final Map<String, Set<QuestTaskType<?>>> types = new HashMap<>();
+
+    public void add(String id, Quest quest) {
+        remove(id);
+        Set<QuestTaskType<?>> questTypes = new HashSet<>();
+        for (QuestTask<?, ?, ?> task : quest.tasks().values()) {
+            for (QuestTaskType<?> type : task.compatibleTypes()) {
+                this.tasks.computeIfAbsent(type, k -> new LinkedHashMap<>())
+                    .computeIfAbsent(id, k -> new ArrayList<>())
+                    .add(task);
+                questTypes.add(type);
+            }
+        }
+        this.types.put(id, questTypes);
+    }
+
+    public void remove(String id) {
+        Set<QuestTaskType<?>> questTypes = this.types.remove(id);
+        if (questTypes == null) return;
+        for (QuestTaskType<?> type : questTypes) {
+            Map<String, List<QuestTask<?, ?, ?>>> typeTasks = this.tasks.get(type);
+            if (typeTasks == null) continue;
+            typeTasks.remove(id);
+            if (typeTasks.isEmpty()) {
+                this.tasks.remove(type);
+            }
+        }
+    }
+
+    public boolean contains(String id) {
+        return this.types.containsKey(id);
+    }
+
+    public void clear() {
+        this.tasks.clear();
+        this.types.clear();
+    }
+
+    /**
+     * Gets the indexed tasks compatible with the given type grouped by their quest id.
+     */
+    public Map<String, List<QuestTask<?, ?, ?>>> get(QuestTaskType<?> type) {
+        return this.tasks.getOrDefault(type, Map.of());
+    }
+}
@@ -0,0 +1,81 @@
+package earth.terrarium.heracles.common.handlers.syncing;
+
+import earth.terrarium.heracles.common.handlers.pinned.PinnedQuestHandler;
+import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
+import earth.terrarium.heracles.common.network.NetworkHandler;
+import earth.terrarium.heracles.common.network.packets.ProgressUpdatesPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.*;
+
+/**
+ * Collects the progress updates for each player during a tick and sends them as one packet per player at the end of the tick.
+ * The progress is read when the packet is created so a quest changed several times in a tick is only sent once.
+ */
+public final class ProgressOutbox {
+
+    private static final Map<UUID, Outbox> OUTBOXES = new LinkedHashMap<>();
+
+    private static Outbox get(ServerPlayer player) {
+        return OUTBOXES.computeIfAbsent(player.getUUID(), uuid -> new Outbox());
+    }
+
+    public static void quests(ServerPlayer player, Collection<String> quests) {
+        get(player).quests.addAll(quests);
+    }
+
+    public static void tasks(ServerPlayer player, Map<String, ? extends Collection<String>> tasks) {
+        Outbox outbox = get(player);
+        tasks.forEach((quest, ids) -> outbox.tasks.computeIfAbsent(quest, k -> new HashSet<>()).addAll(ids));
+    }
+
+    /**
+     * Queues the pinned quests to be synced if any of the changed quests is pinned.
+     */
+    public static void pinned(ServerPlayer player, Collection<String> changed) {
+        Outbox outbox = get(player);
+        if (outbox.pinned) return;
+        outbox.pinned = !Collections.disjoint(PinnedQuestHandler.getPinned(player), changed);
+    }
+
+    public static void completed(ServerPlayer player, String quest) {
+        get(player).completed.add(quest);
+    }
+
+    public static void unlocked(ServerPlayer player, String quest) {
+        get(player).unlocked.add(quest);
+    }
+
+    public static void flush(MinecraftServer server) {
+        if (OUTBOXES.isEmpty()) return;
+        List<Map.Entry<UUID, Outbox>> outboxes = List.copyOf(OUTBOXES.entrySet());
+        OUTBOXES.clear();
+        for (var entry : outboxes) {
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            if (player == null) continue;
+            NetworkHandler.sendToPlayer(entry.getValue().createPacket(player), player);
+        }
+    }
+
+    private static class Outbox {
+
+        private final Set<String> quests = new LinkedHashSet<>();
+        private final Map<String, Set<String>> tasks = new LinkedHashMap<>();
+        private final Set<String> completed = new LinkedHashSet<>();
+        private final Set<String> unlocked = new LinkedHashSet<>();
+        private boolean pinned;
+
+        private ProgressUpdatesPacket createPacket(ServerPlayer player) {
+            // Quests synced in full already contain their changed tasks.
+            quests.forEach(tasks::remove);
+            return new ProgressUpdatesPacket(
+                quests.isEmpty() ? null : QuestProgressHandler.createSyncPacket(player, quests),
+                tasks.isEmpty() ? null : QuestProgressHandler.createTaskSyncPacket(player, tasks),
+                pinned ? PinnedQuestHandler.createSyncPacket(player) : null,
+                List.copyOf(completed),
+                List.copyOf(unlocked)
+            );
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package earth.terrarium.heracles.common.handlers.syncing;
+
+import com.teamresourceful.resourcefullib.common.codecs.yabn.YabnOps;
+import com.teamresourceful.yabn.YabnParser;
+import com.teamresourceful.yabn.reader.ArrayByteReader;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.api.quests.QuestDisplay;
+import earth.terrarium.heracles.common.handlers.quests.QuestCache;
+import net.minecraft.resources.RegistryOps;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * The format quests are synced in, each quest is encoded on its own as yabn and identified by the hash of those bytes
+ * so the client can cache them by content and only download the quests it doesn't have yet.
+ * <p>
+ * The description is left out, it is usually most of the size of a quest and only needed once the quest is opened.
+ */
+public final class QuestPackEntries {
+
+    @Nullable
+    public static byte[] encode(String id, Quest quest) {
+        return Quest.CODEC.encodeStart(RegistryOps.create(YabnOps.COMPRESSED, Heracles.getRegistryAccess()), withoutDescription(quest))
+            .result()
+            .map(element -> element.toFullData())
+            .orElseGet(() -> {
+                Heracles.LOGGER.error("Failed to encode quest {} for syncing", id);
+                return null;
+            });
+    }
+
+    @Nullable
+    public static Quest decode(byte[] data) {
+        try {
+            return Quest.CODEC.parse(RegistryOps.create(YabnOps.COMPRESSED, Heracles.getRegistryAccess()), YabnParser.parse(new ArrayByteReader(data)))
+                .result()
+                .orElse(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Quest withoutDescription(Quest quest) {
+        QuestDisplay display = new QuestDisplay(
+            quest.display().icon(),
+            quest.display().iconBackground(),
+            quest.display().title(),
+            quest.display().subtitle(),
+            List.of(),
+            quest.display().groups()
+        );
+        return new Quest(display, quest.settings(), quest.dependencies(), quest.tasks(), quest.rewards());
+    }
+
+    public static long hash(byte[] data) {
+        return QuestCache.hash(data);
+    }
+}
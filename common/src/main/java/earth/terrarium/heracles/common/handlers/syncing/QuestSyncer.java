@@ -1,91 +1,329 @@
 package earth.terrarium.heracles.common.handlers.syncing;
 
-import com.google.common.collect.Maps;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.api.quests.Quest;
-import earth.terrarium.heracles.api.quests.QuestDisplay;
+import earth.terrarium.heracles.api.rewards.QuestReward;
+import earth.terrarium.heracles.api.rewards.defaults.LootTableReward;
+import earth.terrarium.heracles.api.tasks.TaskKeyIndex;
+import earth.terrarium.heracles.api.tasks.defaults.AdvancementTask;
+import earth.terrarium.heracles.common.handlers.metrics.FlightRecorderEvents;
 import earth.terrarium.heracles.common.handlers.pinned.PinnedQuestHandler;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
 import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
 import earth.terrarium.heracles.common.network.NetworkHandler;
-import earth.terrarium.heracles.common.network.packets.quests.SyncDescriptionsPacket;
-import earth.terrarium.heracles.common.network.packets.quests.SyncQuestsPacket;
+import earth.terrarium.heracles.common.network.PreEncodedPackets;
+import earth.terrarium.heracles.common.network.packets.ClientboundAdvancementDisplayPacket;
+import earth.terrarium.heracles.common.network.packets.ClientboundLootTablesDisplayPacket;
+import earth.terrarium.heracles.common.network.packets.quests.QuestDescriptionsPacket;
+import earth.terrarium.heracles.common.network.packets.quests.QuestEntriesPacket;
+import earth.terrarium.heracles.common.network.packets.quests.QuestManifestPacket;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.ServerAdvancementManager;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.storage.loot.LootDataManager;
 
 import java.util.*;
 
+/**
+ * Syncs the quests and the advancement and loot table displays to players. The packets are encoded once and
+ * the same bytes are sent to every player until the quests are edited or the datapacks are reloaded.
+ * <p>
+ * Quests are synced by sending a {@link QuestManifestPacket} with the hash and groups of every quest, the client
+ * then loads the quests it needs as it needs them, like the quests of a group when it is opened, and requests the
+ * ones it doesn't have cached. Descriptions are left out of the synced quests and sent when the client opens a quest.
+ * Quests are only encoded and hashed again when they change, and requested quests are sent a chunk per tick with one
+ * request per player being sent at a time.
+ * <p>
+ * Players are only sent the advancements and loot tables used by the quests, the editor requests the whole catalogue
+ * when it needs it for its pickers.
+ */
 public final class QuestSyncer {
 
+    // Kept below the custom payload limit with plenty of room for the ids.
+    private static final int MAX_ENTRIES_SIZE = 512 * 1024;
+    private static final int MAX_DESCRIPTIONS = 64;
+
+    private static int revision = -1;
+    private static List<String> groups = List.of();
+    private static Map<String, EncodedQuest> entries = Map.of();
+    private static final Map<UUID, QuestRequest> REQUESTS = new LinkedHashMap<>();
+    private static QuestManifestPacket manifestPacket;
+    private static ServerAdvancementManager advancements;
+    private static int advancementsRevision = -1;
+    private static ClientboundAdvancementDisplayPacket advancementPacket;
+    private static ClientboundAdvancementDisplayPacket advancementCatalogue;
+    private static LootDataManager lootData;
+    private static int lootTablesRevision = -1;
+    private static ClientboundLootTablesDisplayPacket lootTablesPacket;
+    private static ClientboundLootTablesDisplayPacket lootTablesCatalogue;
+
     public static void syncToAll(MinecraftServer server, List<ServerPlayer> players) {
-        SyncQuestsPacket packet = createPacket();
+        invalidate();
+        QuestManifestPacket packet = getManifest();
         Heracles.LOGGER.debug("Syncing quests to {} players with {} quests and {} groups", players.size(), packet.quests().size(), packet.groups().size());
-        NetworkHandler.CHANNEL.sendToPlayers(packet, players);
-        syncDescriptions(players);
+        NetworkHandler.sendToPlayers(packet, players);
         QuestProgressHandler.read(server).updatePossibleQuests();
+        for (ServerPlayer player : players) {
+            QuestProgressHandler.syncAll(player);
+            PinnedQuestHandler.sync(player);
+        }
     }
 
     public static void sync(ServerPlayer player) {
-        SyncQuestsPacket packet = createPacket();
+        FlightRecorderEvents.JoinSync event = new FlightRecorderEvents.JoinSync();
+        event.begin();
+        REQUESTS.remove(player.getUUID());
+        QuestManifestPacket packet = getManifest();
         Heracles.LOGGER.debug("Syncing quests to player {} with {} quests and {} groups", player.getGameProfile().getName(), packet.quests().size(), packet.groups().size());
-        NetworkHandler.CHANNEL.sendToPlayer(packet, player);
+        NetworkHandler.sendToPlayer(packet, player);
+        // The client keeps the progress of quests it hasn't loaded yet, so this doesn't wait for the quests.
+        QuestProgressHandler.syncAll(player);
         PinnedQuestHandler.sync(player);
-        syncDescriptions(List.of(player));
+        if (event.shouldCommit()) {
+            event.player = player.getGameProfile().getName();
+            event.quests = packet.quests().size();
+            event.groups = packet.groups().size();
+            event.commit();
+        }
     }
 
-    private static SyncQuestsPacket createPacket() {
-        Map<String, Quest> quests = QuestHandler.quests();
-        Map<String, Quest> compressedQuests = Maps.newHashMapWithExpectedSize(quests.size());
-        for (var entry : quests.entrySet()) {
-            compressedQuests.put(entry.getKey(), compress(entry.getValue()));
+    /**
+     * Starts sending the requested quests, quests that no longer exist are skipped. The client only has one request
+     * at a time, a request made while the last one is still being sent is ignored.
+     */
+    public static void sendQuests(ServerPlayer player, int request, Collection<String> quests) {
+        if (REQUESTS.containsKey(player.getUUID())) {
+            Heracles.LOGGER.warn("Ignored quest request from {} while their last request is still being sent", player.getGameProfile().getName());
+            return;
+        }
+        getManifest();
+        // Duplicates are dropped and no client needs more quests than there are.
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : quests) {
+            if (ids.size() >= entries.size()) break;
+            if (entries.containsKey(id)) {
+                ids.add(id);
+            }
+        }
+        QuestRequest pending = new QuestRequest(request, ids.iterator());
+        if (!pending.send(player)) {
+            REQUESTS.put(player.getUUID(), pending);
         }
-        return new SyncQuestsPacket(compressedQuests, QuestHandler.groups());
     }
 
-    private static void syncDescriptions(Collection<ServerPlayer> player) {
-        var quests = QuestHandler.quests();
-        List<QuestDescEntry> descriptions = new ArrayList<>();
-        descriptions.add(new QuestDescEntry());
-        quests.forEach((key, quest) -> {
-            String description = String.join("\n", quest.display().description());
-            if (descriptions.get(descriptions.size() - 1).size > 6000000) {
-                descriptions.add(new QuestDescEntry());
-            }
-            descriptions.get(descriptions.size() - 1).add(key, description);
+    /**
+     * Sends the next chunk of every request that is still being sent.
+     */
+    public static void tick(MinecraftServer server) {
+        if (REQUESTS.isEmpty()) return;
+        getManifest();
+        REQUESTS.entrySet().removeIf(entry -> {
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            return player == null || entry.getValue().send(player);
         });
-        for (QuestDescEntry description : descriptions) {
-            NetworkHandler.CHANNEL.sendToPlayers(new SyncDescriptionsPacket(description.descriptions), player);
+    }
+
+    /**
+     * Sends the descriptions of the requested quests, the client only asks for the few it is about to show.
+     */
+    public static void sendDescriptions(ServerPlayer player, Collection<String> quests) {
+        Map<String, List<String>> descriptions = new LinkedHashMap<>();
+        int size = 0;
+        for (String id : quests) {
+            if (descriptions.size() >= MAX_DESCRIPTIONS) break;
+            Quest quest = QuestHandler.get(id);
+            if (quest == null) continue;
+            List<String> description = quest.display().description();
+            int length = id.length() + description.stream().mapToInt(String::length).sum();
+            if (size + length > MAX_ENTRIES_SIZE && !descriptions.isEmpty()) {
+                NetworkHandler.sendToPlayer(new QuestDescriptionsPacket(descriptions), player);
+                descriptions = new LinkedHashMap<>();
+                size = 0;
+            }
+            descriptions.put(id, description);
+            size += length;
+        }
+        if (!descriptions.isEmpty()) {
+            NetworkHandler.sendToPlayer(new QuestDescriptionsPacket(descriptions), player);
         }
     }
 
-    private static Quest compress(Quest quest) {
-        QuestDisplay display = new QuestDisplay(
-            quest.display().icon(),
-            quest.display().iconBackground(),
-            quest.display().title(),
-            quest.display().subtitle(),
-            List.of(),
-            quest.display().groups()
-        );
-
-        return new Quest(
-            display,
-            quest.settings(),
-            quest.dependencies(),
-            quest.tasks(),
-            quest.rewards()
-        );
+    /**
+     * Drops all encoded packets so they are created again the next time they are sent.
+     */
+    public static void invalidate() {
+        PreEncodedPackets.release(manifestPacket);
+        PreEncodedPackets.release(advancementPacket);
+        PreEncodedPackets.release(advancementCatalogue);
+        PreEncodedPackets.release(lootTablesPacket);
+        PreEncodedPackets.release(lootTablesCatalogue);
+        revision = -1;
+        entries = Map.of();
+        REQUESTS.clear();
+        manifestPacket = null;
+        advancements = null;
+        advancementsRevision = -1;
+        advancementPacket = null;
+        advancementCatalogue = null;
+        lootData = null;
+        lootTablesRevision = -1;
+        lootTablesPacket = null;
+        lootTablesCatalogue = null;
     }
 
-    private static class QuestDescEntry {
+    private static QuestManifestPacket getManifest() {
+        // Groups are edited in place without changing the revision, so they are compared as well.
+        if (manifestPacket == null || revision != QuestHandler.revision() || !groups.equals(QuestHandler.groups())) {
+            PreEncodedPackets.release(manifestPacket);
+            revision = QuestHandler.revision();
+            groups = List.copyOf(QuestHandler.groups());
+            Map<String, EncodedQuest> encoded = new HashMap<>();
+            Map<String, QuestManifestPacket.Entry> manifest = new LinkedHashMap<>();
+            for (Map.Entry<String, Quest> entry : QuestHandler.quests().entrySet()) {
+                int questRevision = QuestHandler.revision(entry.getKey());
+                EncodedQuest quest = entries.get(entry.getKey());
+                if (quest == null || quest.revision() != questRevision) {
+                    byte[] data = QuestPackEntries.encode(entry.getKey(), entry.getValue());
+                    if (data == null) continue;
+                    QuestManifestPacket.Entry manifestEntry = new QuestManifestPacket.Entry(QuestPackEntries.hash(data), Set.copyOf(entry.getValue().display().groups().keySet()));
+                    quest = new EncodedQuest(questRevision, data, manifestEntry);
+                }
+                encoded.put(entry.getKey(), quest);
+                manifest.put(entry.getKey(), quest.entry());
+            }
+            entries = encoded;
+            manifestPacket = PreEncodedPackets.encode(new QuestManifestPacket(manifest, groups));
+        }
+        return manifestPacket;
+    }
 
-        Map<String, String> descriptions = new HashMap<>();
-        int size = 0;
+    /**
+     * Sends the advancement and loot table displays to all players again if a quest edit started using ones that
+     * weren't used before.
+     */
+    public static void syncDisplays(MinecraftServer server) {
+        ClientboundAdvancementDisplayPacket oldAdvancements = advancementPacket;
+        ClientboundLootTablesDisplayPacket oldLootTables = lootTablesPacket;
+        ClientboundAdvancementDisplayPacket newAdvancements = getAdvancementPacket(server);
+        ClientboundLootTablesDisplayPacket newLootTables = getLootTablesPacket(server);
+        if (oldAdvancements == null || !oldAdvancements.infos().keySet().containsAll(newAdvancements.infos().keySet())) {
+            NetworkHandler.sendToAllPlayers(newAdvancements, server);
+        }
+        if (oldLootTables == null || !oldLootTables.tables().containsAll(newLootTables.tables())) {
+            NetworkHandler.sendToAllPlayers(newLootTables, server);
+        }
+    }
+
+    /**
+     * @return the displays of the advancements used by advancement tasks.
+     */
+    public static ClientboundAdvancementDisplayPacket getAdvancementPacket(MinecraftServer server) {
+        checkAdvancements(server);
+        if (advancementPacket == null || advancementsRevision != QuestHandler.revision()) {
+            PreEncodedPackets.release(advancementPacket);
+            advancementsRevision = QuestHandler.revision();
+            TaskKeyIndex<ResourceLocation> index = QuestHandler.getTaskCache(AdvancementTask.TYPE);
+            Collection<ResourceLocation> used = index == null ? Set.of() : index.keys();
+            advancementPacket = PreEncodedPackets.encode(new ClientboundAdvancementDisplayPacket(server, used));
+        }
+        return advancementPacket;
+    }
 
-        public void add(String key, String description) {
-            descriptions.put(key, description);
-            size += description.getBytes().length;
-            size += key.getBytes().length;
+    public static ClientboundAdvancementDisplayPacket getAdvancementCatalogue(MinecraftServer server) {
+        checkAdvancements(server);
+        if (advancementCatalogue == null) {
+            advancementCatalogue = PreEncodedPackets.encode(new ClientboundAdvancementDisplayPacket(server));
+        }
+        return advancementCatalogue;
+    }
+
+    private static void checkAdvancements(MinecraftServer server) {
+        // The advancement manager is replaced when the datapacks are reloaded.
+        if (advancements != server.getAdvancements()) {
+            PreEncodedPackets.release(advancementPacket);
+            PreEncodedPackets.release(advancementCatalogue);
+            advancements = server.getAdvancements();
+            advancementPacket = null;
+            advancementCatalogue = null;
+        }
+    }
+
+    /**
+     * @return the loot tables used by loot table rewards.
+     */
+    public static ClientboundLootTablesDisplayPacket getLootTablesPacket(MinecraftServer server) {
+        checkLootData(server);
+        if (lootTablesPacket == null || lootTablesRevision != QuestHandler.revision()) {
+            PreEncodedPackets.release(lootTablesPacket);
+            lootTablesRevision = QuestHandler.revision();
+            Set<ResourceLocation> used = new HashSet<>();
+            for (Quest quest : QuestHandler.quests().values()) {
+                for (QuestReward<?> reward : quest.rewards().values()) {
+                    if (reward instanceof LootTableReward lootTableReward) {
+                        used.add(lootTableReward.lootTable());
+                    }
+                }
+            }
+            lootTablesPacket = PreEncodedPackets.encode(new ClientboundLootTablesDisplayPacket(used));
+        }
+        return lootTablesPacket;
+    }
+
+    public static ClientboundLootTablesDisplayPacket getLootTablesCatalogue(MinecraftServer server) {
+        checkLootData(server);
+        if (lootTablesCatalogue == null) {
+            lootTablesCatalogue = PreEncodedPackets.encode(new ClientboundLootTablesDisplayPacket(server));
+        }
+        return lootTablesCatalogue;
+    }
+
+    private static void checkLootData(MinecraftServer server) {
+        if (lootData != server.getLootData()) {
+            PreEncodedPackets.release(lootTablesPacket);
+            PreEncodedPackets.release(lootTablesCatalogue);
+            lootData = server.getLootData();
+            lootTablesPacket = null;
+            lootTablesCatalogue = null;
+        }
+    }
+
+    private record EncodedQuest(int revision, byte[] data, QuestManifestPacket.Entry entry) {}
+
+    private static final class QuestRequest {
+
+        private final int request;
+        private final Iterator<String> quests;
+        private String next;
+
+        private QuestRequest(int request, Iterator<String> quests) {
+            this.request = request;
+            this.quests = quests;
+        }
+
+        /**
+         * Sends the next chunk of the quests.
+         *
+         * @return true if it was the last chunk.
+         */
+        private boolean send(ServerPlayer player) {
+            Map<String, byte[]> chunk = new LinkedHashMap<>();
+            int size = 0;
+            while (next != null || quests.hasNext()) {
+                String id = next != null ? next : quests.next();
+                next = null;
+                EncodedQuest quest = entries.get(id);
+                if (quest == null) continue;
+                if (size + quest.data().length > MAX_ENTRIES_SIZE && !chunk.isEmpty()) {
+                    next = id;
+                    NetworkHandler.sendToPlayer(new QuestEntriesPacket(request, chunk, false), player);
+                    return false;
+                }
+                chunk.put(id, quest.data());
+                size += quest.data().length + id.length();
+            }
+            NetworkHandler.sendToPlayer(new QuestEntriesPacket(request, chunk, true), player);
+            return true;
         }
     }
 }
@@ -1,7 +1,9 @@
 package earth.terrarium.heracles.common.network;
 
 import com.teamresourceful.resourcefullib.common.network.NetworkChannel;
+import com.teamresourceful.resourcefullib.common.network.Packet;
 import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.common.handlers.metrics.PerformanceMetrics;
 import earth.terrarium.heracles.common.network.packets.*;
 import earth.terrarium.heracles.common.network.packets.groups.CreateGroupPacket;
 import earth.terrarium.heracles.common.network.packets.groups.DeleteGroupPacket;
@@ -16,30 +18,40 @@ import earth.terrarium.heracles.common.network.packets.screens.OpenQuestsScreenP
 import earth.terrarium.heracles.common.network.packets.tasks.CheckTaskPacket;
 import earth.terrarium.heracles.common.network.packets.tasks.ManualItemTaskPacket;
 import earth.terrarium.heracles.common.network.packets.tasks.ManualXpTaskPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.Collection;
 
 @SuppressWarnings("UnstableApiUsage")
 public class NetworkHandler {
 
-    public static final NetworkChannel CHANNEL = new NetworkChannel(Heracles.MOD_ID, 1, "main");
+    public static final NetworkChannel CHANNEL = new NetworkChannel(Heracles.MOD_ID, 3, "main");
 
     public static void init() {
         CHANNEL.register(QuestRewardClaimedPacket.TYPE);
-        CHANNEL.register(SyncQuestsPacket.TYPE);
+        CHANNEL.register(QuestManifestPacket.TYPE);
+        CHANNEL.register(QuestEntriesPacket.TYPE);
+        CHANNEL.register(QuestDescriptionsPacket.TYPE);
         CHANNEL.register(QuestCompletedPacket.TYPE);
         CHANNEL.register(SyncPinnedQuestsPacket.TYPE);
         CHANNEL.register(SyncQuestProgressPacket.TYPE);
-        CHANNEL.register(SyncDescriptionsPacket.TYPE);
+        CHANNEL.register(SyncTaskProgressPacket.TYPE);
         CHANNEL.register(OpenQuestScreenPacket.TYPE);
         CHANNEL.register(OpenQuestsScreenPacket.TYPE);
         CHANNEL.register(ClientboundAddQuestPacket.TYPE);
         CHANNEL.register(ClientboundRemoveQuestPacket.TYPE);
         CHANNEL.register(ClientboundUpdateQuestPacket.TYPE);
         CHANNEL.register(QuestUnlockedPacket.TYPE);
+        CHANNEL.register(ProgressUpdatesPacket.TYPE);
         CHANNEL.register(ClientboundAdvancementDisplayPacket.TYPE);
         CHANNEL.register(ClientboundLootTablesDisplayPacket.TYPE);
 
         CHANNEL.register(OpenGroupPacket.TYPE);
         CHANNEL.register(OpenQuestPacket.TYPE);
+        CHANNEL.register(RequestQuestsPacket.TYPE);
+        CHANNEL.register(RequestDescriptionsPacket.TYPE);
+        CHANNEL.register(ServerboundCatalogueRequestPacket.TYPE);
         CHANNEL.register(ServerboundUpdateQuestPacket.TYPE);
         CHANNEL.register(ServerboundAddQuestPacket.TYPE);
         CHANNEL.register(ServerboundRemoveQuestPacket.TYPE);
@@ -52,4 +64,21 @@ public class NetworkHandler {
         CHANNEL.register(ManualItemTaskPacket.TYPE);
         CHANNEL.register(ManualXpTaskPacket.TYPE);
     }
+
+    // The server sends packets through these so they are counted in the performance metrics.
+
+    public static <T extends Packet<T>> void sendToPlayer(T packet, Player player) {
+        PerformanceMetrics.packet(packet, 1);
+        CHANNEL.sendToPlayer(packet, player);
+    }
+
+    public static <T extends Packet<T>> void sendToPlayers(T packet, Collection<? extends Player> players) {
+        PerformanceMetrics.packet(packet, players.size());
+        CHANNEL.sendToPlayers(packet, players);
+    }
+
+    public static <T extends Packet<T>> void sendToAllPlayers(T packet, MinecraftServer server) {
+        PerformanceMetrics.packet(packet, server.getPlayerCount());
+        CHANNEL.sendToAllPlayers(packet, server);
+    }
 }
@@ -0,0 +1,51 @@
+package earth.terrarium.heracles.common.network;
+
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketType;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the encoded bytes of packets that are sent unchanged to many players, so they are only encoded once.
+ * <p>
+ * The packets are looked up by identity, a packet type that supports this calls {@link #write(Packet, FriendlyByteBuf)}
+ * at the start of its encode and only encodes the packet itself when that returns false.
+ */
+public final class PreEncodedPackets {
+
+    private static final Map<Packet<?>, byte[]> ENCODED = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Encodes the packet and keeps the bytes until the packet is released.
+     */
+    public static <T extends Packet<T>> T encode(T packet) {
+        if (packet.type() instanceof ClientboundPacketType<T> type) {
+            FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+            try {
+                type.encode(packet, buffer);
+                byte[] bytes = new byte[buffer.readableBytes()];
+                buffer.readBytes(bytes);
+                ENCODED.put(packet, bytes);
+            } finally {
+                buffer.release();
+            }
+        }
+        return packet;
+    }
+
+    public static void release(Packet<?> packet) {
+        if (packet == null) return;
+        ENCODED.remove(packet);
+    }
+
+    public static boolean write(Packet<?> packet, FriendlyByteBuf buffer) {
+        byte[] bytes = ENCODED.get(packet);
+        if (bytes == null) return false;
+        buffer.writeBytes(bytes);
+        return true;
+    }
+}
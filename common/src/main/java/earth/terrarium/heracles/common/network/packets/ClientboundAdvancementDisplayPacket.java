@@ -5,17 +5,22 @@ import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketT
 import com.teamresourceful.resourcefullib.common.network.base.PacketType;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.client.handlers.ClientAdvancementDisplays;
+import earth.terrarium.heracles.common.network.PreEncodedPackets;
 import net.minecraft.advancements.Advancement;
 import net.minecraft.advancements.DisplayInfo;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * The displays of advancements, either the ones used by the quests or the whole catalogue for the editor.
+ */
 public record ClientboundAdvancementDisplayPacket(
-    Map<ResourceLocation, DisplayInfo> infos
+    Map<ResourceLocation, DisplayInfo> infos, boolean catalogue
 ) implements Packet<ClientboundAdvancementDisplayPacket> {
 
     public static final ClientboundPacketType<ClientboundAdvancementDisplayPacket> TYPE = new Type();
@@ -26,7 +31,18 @@ public record ClientboundAdvancementDisplayPacket(
                 .getAllAdvancements()
                 .stream()
                 .filter(advancement -> advancement.getDisplay() != null)
-                .collect(Collectors.toMap(Advancement::getId, Advancement::getDisplay))
+                .collect(Collectors.toMap(Advancement::getId, Advancement::getDisplay)),
+            true
+        );
+    }
+
+    public ClientboundAdvancementDisplayPacket(MinecraftServer server, Collection<ResourceLocation> advancements) {
+        this(
+            advancements.stream()
+                .map(server.getAdvancements()::getAdvancement)
+                .filter(advancement -> advancement != null && advancement.getDisplay() != null)
+                .collect(Collectors.toMap(Advancement::getId, Advancement::getDisplay)),
+            false
         );
     }
 
@@ -48,11 +64,13 @@ public record ClientboundAdvancementDisplayPacket(
 
         @Override
         public void encode(ClientboundAdvancementDisplayPacket message, FriendlyByteBuf buffer) {
+            if (PreEncodedPackets.write(message, buffer)) return;
             buffer.writeMap(
                 message.infos,
                 FriendlyByteBuf::writeResourceLocation,
                 (buf, info) -> info.serializeToNetwork(buf)
             );
+            buffer.writeBoolean(message.catalogue);
         }
 
         @Override
@@ -61,13 +79,14 @@ public record ClientboundAdvancementDisplayPacket(
                 buffer.readMap(
                     FriendlyByteBuf::readResourceLocation,
                     DisplayInfo::fromNetwork
-                )
+                ),
+                buffer.readBoolean()
             );
         }
 
         @Override
         public Runnable handle(ClientboundAdvancementDisplayPacket message) {
-            return () -> ClientAdvancementDisplays.add(message.infos());
+            return () -> ClientAdvancementDisplays.add(message.infos(), message.catalogue());
         }
     }
 }
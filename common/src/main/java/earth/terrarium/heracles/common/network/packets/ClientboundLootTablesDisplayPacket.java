@@ -5,6 +5,7 @@ import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketT
 import com.teamresourceful.resourcefullib.common.network.base.PacketType;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.client.handlers.ClientlootTableDisplays;
+import earth.terrarium.heracles.common.network.PreEncodedPackets;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
@@ -13,14 +14,21 @@ import net.minecraft.world.level.storage.loot.LootDataType;
 import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * The ids of loot tables, either the ones used by the quests or the whole catalogue for the editor.
+ */
 public record ClientboundLootTablesDisplayPacket(
-    Set<ResourceLocation> tables
+    Set<ResourceLocation> tables, boolean catalogue
 ) implements Packet<ClientboundLootTablesDisplayPacket> {
 
     public static final ClientboundPacketType<ClientboundLootTablesDisplayPacket> TYPE = new Type();
 
     public ClientboundLootTablesDisplayPacket(MinecraftServer server) {
-        this(new HashSet<>(server.getLootData().getKeys(LootDataType.TABLE)));
+        this(new HashSet<>(server.getLootData().getKeys(LootDataType.TABLE)), true);
+    }
+
+    public ClientboundLootTablesDisplayPacket(Set<ResourceLocation> tables) {
+        this(tables, false);
     }
 
     @Override
@@ -41,21 +49,23 @@ public record ClientboundLootTablesDisplayPacket(
 
         @Override
         public void encode(ClientboundLootTablesDisplayPacket message, FriendlyByteBuf buffer) {
+            if (PreEncodedPackets.write(message, buffer)) return;
             buffer.writeCollection(
                 message.tables,
                 FriendlyByteBuf::writeResourceLocation
             );
+            buffer.writeBoolean(message.catalogue);
         }
 
         @Override
         public ClientboundLootTablesDisplayPacket decode(FriendlyByteBuf buffer) {
             Set<ResourceLocation> ids = buffer.readCollection(HashSet::new, FriendlyByteBuf::readResourceLocation);
-            return new ClientboundLootTablesDisplayPacket(ids);
+            return new ClientboundLootTablesDisplayPacket(ids, buffer.readBoolean());
         }
 
         @Override
         public Runnable handle(ClientboundLootTablesDisplayPacket message) {
-            return () -> ClientlootTableDisplays.set(message.tables);
+            return () -> ClientlootTableDisplays.set(message.tables, message.catalogue);
         }
     }
 }
@@ -0,0 +1,84 @@
+package earth.terrarium.heracles.common.network.packets;
+
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketType;
+import com.teamresourceful.resourcefullib.common.network.base.PacketType;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.client.HeraclesClient;
+import earth.terrarium.heracles.common.network.packets.pinned.SyncPinnedQuestsPacket;
+import earth.terrarium.heracles.common.network.packets.quests.SyncQuestProgressPacket;
+import earth.terrarium.heracles.common.network.packets.quests.SyncTaskProgressPacket;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * All the progress updates of a player collected during a tick, the parts are handled in the same way as their own packets.
+ */
+public record ProgressUpdatesPacket(
+    @Nullable SyncQuestProgressPacket progress,
+    @Nullable SyncTaskProgressPacket tasks,
+    @Nullable SyncPinnedQuestsPacket pinned,
+    List<String> completed,
+    List<String> unlocked
+) implements Packet<ProgressUpdatesPacket> {
+
+    public static final ClientboundPacketType<ProgressUpdatesPacket> TYPE = new Type();
+
+    @Override
+    public PacketType<ProgressUpdatesPacket> type() {
+        return TYPE;
+    }
+
+    private static class Type implements ClientboundPacketType<ProgressUpdatesPacket> {
+
+        @Override
+        public Class<ProgressUpdatesPacket> type() {
+            return ProgressUpdatesPacket.class;
+        }
+
+        @Override
+        public ResourceLocation id() {
+            return new ResourceLocation(Heracles.MOD_ID, "progress_updates");
+        }
+
+        @Override
+        public void encode(ProgressUpdatesPacket message, FriendlyByteBuf buffer) {
+            buffer.writeNullable(message.progress, (buf, packet) -> SyncQuestProgressPacket.TYPE.encode(packet, buf));
+            buffer.writeNullable(message.tasks, (buf, packet) -> SyncTaskProgressPacket.TYPE.encode(packet, buf));
+            buffer.writeNullable(message.pinned, (buf, packet) -> SyncPinnedQuestsPacket.TYPE.encode(packet, buf));
+            buffer.writeCollection(message.completed, FriendlyByteBuf::writeUtf);
+            buffer.writeCollection(message.unlocked, FriendlyByteBuf::writeUtf);
+        }
+
+        @Override
+        public ProgressUpdatesPacket decode(FriendlyByteBuf buffer) {
+            return new ProgressUpdatesPacket(
+                buffer.readNullable(SyncQuestProgressPacket.TYPE::decode),
+                buffer.readNullable(SyncTaskProgressPacket.TYPE::decode),
+                buffer.readNullable(SyncPinnedQuestsPacket.TYPE::decode),
+                buffer.readList(FriendlyByteBuf::readUtf),
+                buffer.readList(FriendlyByteBuf::readUtf)
+            );
+        }
+
+        @Override
+        public Runnable handle(ProgressUpdatesPacket message) {
+            return () -> {
+                if (message.progress != null) {
+                    SyncQuestProgressPacket.TYPE.handle(message.progress).run();
+                }
+                if (message.tasks != null) {
+                    SyncTaskProgressPacket.TYPE.handle(message.tasks).run();
+                }
+                if (message.pinned != null) {
+                    SyncPinnedQuestsPacket.TYPE.handle(message.pinned).run();
+                }
+                message.completed.forEach(HeraclesClient::displayQuestCompleteToast);
+                message.unlocked.forEach(HeraclesClient::displayQuestUnlockedToast);
+            };
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package earth.terrarium.heracles.common.network.packets;
+
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.PacketType;
+import com.teamresourceful.resourcefullib.common.network.base.ServerboundPacketType;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.common.handlers.syncing.QuestSyncer;
+import earth.terrarium.heracles.common.network.NetworkHandler;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.function.Consumer;
+
+/**
+ * Requests every advancement or loot table on the server for the pickers in the editor, players are only sent
+ * the ones used by the quests otherwise.
+ */
+public record ServerboundCatalogueRequestPacket(Catalogue catalogue) implements Packet<ServerboundCatalogueRequestPacket> {
+
+    public static final ServerboundPacketType<ServerboundCatalogueRequestPacket> TYPE = new Type();
+
+    @Override
+    public PacketType<ServerboundCatalogueRequestPacket> type() {
+        return TYPE;
+    }
+
+    public enum Catalogue {
+        ADVANCEMENTS,
+        LOOT_TABLES
+    }
+
+    private static class Type implements ServerboundPacketType<ServerboundCatalogueRequestPacket> {
+
+        @Override
+        public Class<ServerboundCatalogueRequestPacket> type() {
+            return ServerboundCatalogueRequestPacket.class;
+        }
+
+        @Override
+        public ResourceLocation id() {
+            return new ResourceLocation(Heracles.MOD_ID, "catalogue_request");
+        }
+
+        @Override
+        public void encode(ServerboundCatalogueRequestPacket message, FriendlyByteBuf buffer) {
+            buffer.writeEnum(message.catalogue);
+        }
+
+        @Override
+        public ServerboundCatalogueRequestPacket decode(FriendlyByteBuf buffer) {
+            return new ServerboundCatalogueRequestPacket(buffer.readEnum(Catalogue.class));
+        }
+
+        @Override
+        public Consumer<Player> handle(ServerboundCatalogueRequestPacket message) {
+            return player -> {
+                if (!(player instanceof ServerPlayer serverPlayer) || !player.hasPermissions(2)) return;
+                switch (message.catalogue) {
+                    case ADVANCEMENTS -> NetworkHandler.sendToPlayer(QuestSyncer.getAdvancementCatalogue(serverPlayer.server), serverPlayer);
+                    case LOOT_TABLES -> NetworkHandler.sendToPlayer(QuestSyncer.getLootTablesCatalogue(serverPlayer.server), serverPlayer);
+                }
+            };
+        }
+    }
+}
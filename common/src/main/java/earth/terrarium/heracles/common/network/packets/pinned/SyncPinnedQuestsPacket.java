@@ -4,19 +4,28 @@ import com.teamresourceful.resourcefullib.common.network.Packet;
 import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketType;
 import com.teamresourceful.resourcefullib.common.network.base.PacketType;
 import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.client.handlers.ClientQuestSync;
 import earth.terrarium.heracles.client.handlers.ClientQuests;
 import earth.terrarium.heracles.client.handlers.PinnedQuests;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
 
-public record SyncPinnedQuestsPacket(Map<String, QuestProgress> quests) implements Packet<SyncPinnedQuestsPacket> {
+/**
+ * Syncs the pinned quests with their progress, the client reads the progress once the quests are loaded.
+ */
+public record SyncPinnedQuestsPacket(Map<String, QuestProgress> quests, Map<String, CompoundTag> tags) implements Packet<SyncPinnedQuestsPacket> {
 
     public static final ClientboundPacketType<SyncPinnedQuestsPacket> TYPE = new Type();
 
+    public SyncPinnedQuestsPacket(Map<String, QuestProgress> quests) {
+        this(quests, Map.of());
+    }
+
     @Override
     public PacketType<SyncPinnedQuestsPacket> type() {
         return TYPE;
@@ -24,6 +33,9 @@ public record SyncPinnedQuestsPacket(Map<String, QuestProgress> quests) implemen
 
     private static class Type implements ClientboundPacketType<SyncPinnedQuestsPacket> {
 
+        // Loading the quests can finish out of order, only the latest pinned quests are shown.
+        private int latest = 0;
+
         @Override
         public Class<SyncPinnedQuestsPacket> type() {
             return SyncPinnedQuestsPacket.class;
@@ -45,21 +57,25 @@ public record SyncPinnedQuestsPacket(Map<String, QuestProgress> quests) implemen
 
         @Override
         public SyncPinnedQuestsPacket decode(FriendlyByteBuf buffer) {
-            Map<String, QuestProgress> quests = new LinkedHashMap<>();
+            Map<String, CompoundTag> tags = new LinkedHashMap<>();
             int size = buffer.readVarInt();
             for (int i = 0; i < size; i++) {
-                String quest = buffer.readUtf();
-                ClientQuests.get(quest).ifPresent(entry -> {
-                    QuestProgress progress = new QuestProgress(entry.value(), buffer.readNbt());
-                    quests.put(quest, progress);
-                });
+                tags.put(buffer.readUtf(), buffer.readNbt());
             }
-            return new SyncPinnedQuestsPacket(quests);
+            return new SyncPinnedQuestsPacket(Map.of(), tags);
         }
 
         @Override
         public Runnable handle(SyncPinnedQuestsPacket message) {
-            return () -> PinnedQuests.update(message.quests);
+            return () -> {
+                int sequence = ++latest;
+                ClientQuestSync.load(message.tags.keySet(), () -> {
+                    if (sequence != latest) return;
+                    Map<String, QuestProgress> quests = new LinkedHashMap<>();
+                    message.tags.forEach((id, tag) -> ClientQuests.get(id).ifPresent(entry -> quests.put(id, new QuestProgress(entry.value(), tag))));
+                    PinnedQuests.update(quests);
+                });
+            };
         }
     }
 }
@@ -8,6 +8,7 @@ import com.teamresourceful.resourcefullib.common.network.base.PacketType;
 import com.teamresourceful.resourcefullib.common.network.defaults.CodecPacketType;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.client.handlers.ClientQuestDescriptions;
 import earth.terrarium.heracles.client.handlers.ClientQuests;
 import earth.terrarium.heracles.common.utils.ModUtils;
 import net.minecraft.resources.ResourceLocation;
@@ -48,7 +49,11 @@ public record ClientboundAddQuestPacket(
 
         @Override
         public Runnable handle(ClientboundAddQuestPacket message) {
-            return () -> ClientQuests.addQuest(message.id, message.quest);
+            return () -> {
+                ClientQuests.addQuest(message.id, message.quest);
+                // Added quests are sent whole, description included.
+                ClientQuestDescriptions.markLoaded(message.id, message.quest.display().description());
+            };
         }
     }
 }
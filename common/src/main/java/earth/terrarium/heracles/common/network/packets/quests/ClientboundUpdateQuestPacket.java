@@ -7,8 +7,11 @@ import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketT
 import com.teamresourceful.resourcefullib.common.network.base.PacketType;
 import com.teamresourceful.resourcefullib.common.network.defaults.CodecPacketType;
 import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.client.handlers.ClientQuestDescriptions;
+import earth.terrarium.heracles.client.handlers.ClientQuestSync;
 import earth.terrarium.heracles.client.handlers.ClientQuests;
 import earth.terrarium.heracles.common.network.packets.quests.data.NetworkQuestData;
+import earth.terrarium.heracles.common.network.packets.quests.data.NetworkQuestDisplayData;
 import net.minecraft.resources.ResourceLocation;
 
 public record ClientboundUpdateQuestPacket(
@@ -48,7 +51,12 @@ public record ClientboundUpdateQuestPacket(
         public Runnable handle(ClientboundUpdateQuestPacket message) {
             return () -> ClientQuests.get(message.id)
                 .map(ClientQuests.QuestEntry::value)
-                .ifPresent(message.data::update);
+                .ifPresentOrElse(quest -> {
+                    message.data.update(quest);
+                    message.data.display()
+                        .flatMap(NetworkQuestDisplayData::description)
+                        .ifPresent(description -> ClientQuestDescriptions.markLoaded(message.id, description));
+                }, () -> ClientQuestSync.refresh(message.id));
         }
     }
 }
@@ -0,0 +1,54 @@
+package earth.terrarium.heracles.common.network.packets.quests;
+
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketType;
+import com.teamresourceful.resourcefullib.common.network.base.PacketType;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.client.handlers.ClientQuestDescriptions;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The descriptions of the quests requested with a {@link RequestDescriptionsPacket}.
+ */
+public record QuestDescriptionsPacket(Map<String, List<String>> descriptions) implements Packet<QuestDescriptionsPacket> {
+
+    public static final ClientboundPacketType<QuestDescriptionsPacket> TYPE = new Type();
+
+    @Override
+    public PacketType<QuestDescriptionsPacket> type() {
+        return TYPE;
+    }
+
+    private static class Type implements ClientboundPacketType<QuestDescriptionsPacket> {
+
+        @Override
+        public Class<QuestDescriptionsPacket> type() {
+            return QuestDescriptionsPacket.class;
+        }
+
+        @Override
+        public ResourceLocation id() {
+            return new ResourceLocation(Heracles.MOD_ID, "quest_descriptions");
+        }
+
+        @Override
+        public void encode(QuestDescriptionsPacket message, FriendlyByteBuf buffer) {
+            buffer.writeMap(message.descriptions, FriendlyByteBuf::writeUtf, (buf, lines) -> buf.writeCollection(lines, FriendlyByteBuf::writeUtf));
+        }
+
+        @Override
+        public QuestDescriptionsPacket decode(FriendlyByteBuf buffer) {
+            return new QuestDescriptionsPacket(buffer.readMap(LinkedHashMap::new, FriendlyByteBuf::readUtf, buf -> buf.readList(FriendlyByteBuf::readUtf)));
+        }
+
+        @Override
+        public Runnable handle(QuestDescriptionsPacket message) {
+            return () -> ClientQuestDescriptions.onDescriptions(message.descriptions);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package earth.terrarium.heracles.common.network.packets.quests;
+
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketType;
+import com.teamresourceful.resourcefullib.common.network.base.PacketType;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.client.handlers.ClientQuestSync;
+import earth.terrarium.heracles.common.handlers.syncing.QuestPackEntries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The synced data of requested quests, a large request is answered with several of these and the last one is marked.
+ */
+public record QuestEntriesPacket(int request, Map<String, byte[]> entries, Map<String, Quest> quests, boolean last) implements Packet<QuestEntriesPacket> {
+
+    public static final ClientboundPacketType<QuestEntriesPacket> TYPE = new Type();
+
+    public QuestEntriesPacket(int request, Map<String, byte[]> entries, boolean last) {
+        this(request, entries, Map.of(), last);
+    }
+
+    @Override
+    public PacketType<QuestEntriesPacket> type() {
+        return TYPE;
+    }
+
+    private static class Type implements ClientboundPacketType<QuestEntriesPacket> {
+
+        @Override
+        public Class<QuestEntriesPacket> type() {
+            return QuestEntriesPacket.class;
+        }
+
+        @Override
+        public ResourceLocation id() {
+            return new ResourceLocation(Heracles.MOD_ID, "quest_entries");
+        }
+
+        @Override
+        public void encode(QuestEntriesPacket message, FriendlyByteBuf buffer) {
+            buffer.writeVarInt(message.request);
+            buffer.writeMap(message.entries, FriendlyByteBuf::writeUtf, FriendlyByteBuf::writeByteArray);
+            buffer.writeBoolean(message.last);
+        }
+
+        @Override
+        public QuestEntriesPacket decode(FriendlyByteBuf buffer) {
+            int request = buffer.readVarInt();
+            Map<String, byte[]> entries = buffer.readMap(LinkedHashMap::new, FriendlyByteBuf::readUtf, FriendlyByteBuf::readByteArray);
+            boolean last = buffer.readBoolean();
+            Map<String, Quest> quests = new LinkedHashMap<>();
+            entries.forEach((id, data) -> {
+                Quest quest = QuestPackEntries.decode(data);
+                if (quest != null) {
+                    quests.put(id, quest);
+                } else {
+                    Heracles.LOGGER.error("Failed to decode synced quest {}", id);
+                }
+            });
+            return new QuestEntriesPacket(request, entries, quests, last);
+        }
+
+        @Override
+        public Runnable handle(QuestEntriesPacket message) {
+            return () -> ClientQuestSync.onEntries(message.request, message.entries, message.quests, message.last);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package earth.terrarium.heracles.common.network.packets.quests;
+
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketType;
+import com.teamresourceful.resourcefullib.common.network.base.PacketType;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.client.handlers.ClientQuestSync;
+import earth.terrarium.heracles.common.network.PreEncodedPackets;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.*;
+
+/**
+ * Lists the quests of the server by the hash of their synced data along with the groups they are in, the client
+ * only loads the quests it needs and requests the ones it doesn't have cached with a {@link RequestQuestsPacket}.
+ */
+public record QuestManifestPacket(Map<String, Entry> quests, List<String> groups) implements Packet<QuestManifestPacket> {
+
+    public static final ClientboundPacketType<QuestManifestPacket> TYPE = new Type();
+
+    @Override
+    public PacketType<QuestManifestPacket> type() {
+        return TYPE;
+    }
+
+    public record Entry(long hash, Set<String> groups) {}
+
+    private static class Type implements ClientboundPacketType<QuestManifestPacket> {
+
+        @Override
+        public Class<QuestManifestPacket> type() {
+            return QuestManifestPacket.class;
+        }
+
+        @Override
+        public ResourceLocation id() {
+            return new ResourceLocation(Heracles.MOD_ID, "quest_manifest");
+        }
+
+        @Override
+        public void encode(QuestManifestPacket message, FriendlyByteBuf buffer) {
+            if (PreEncodedPackets.write(message, buffer)) return;
+            buffer.writeVarInt(message.quests.size());
+            message.quests.forEach((id, entry) -> {
+                buffer.writeUtf(id);
+                buffer.writeLong(entry.hash());
+                buffer.writeCollection(entry.groups(), FriendlyByteBuf::writeUtf);
+            });
+            buffer.writeCollection(message.groups, FriendlyByteBuf::writeUtf);
+        }
+
+        @Override
+        public QuestManifestPacket decode(FriendlyByteBuf buffer) {
+            Map<String, Entry> quests = new LinkedHashMap<>();
+            int size = buffer.readVarInt();
+            for (int i = 0; i < size; i++) {
+                quests.put(buffer.readUtf(), new Entry(buffer.readLong(), buffer.readCollection(HashSet::new, FriendlyByteBuf::readUtf)));
+            }
+            return new QuestManifestPacket(quests, buffer.readList(FriendlyByteBuf::readUtf));
+        }
+
+        @Override
+        public Runnable handle(QuestManifestPacket message) {
+            return () -> ClientQuestSync.onManifest(message.quests, message.groups);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package earth.terrarium.heracles.common.network.packets.quests;
+
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.PacketType;
+import com.teamresourceful.resourcefullib.common.network.base.ServerboundPacketType;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.common.handlers.syncing.QuestSyncer;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Requests the descriptions of quests, sent when a quest is opened as the synced quests don't include them.
+ */
+public record RequestDescriptionsPacket(List<String> quests) implements Packet<RequestDescriptionsPacket> {
+
+    public static final ServerboundPacketType<RequestDescriptionsPacket> TYPE = new Type();
+
+    @Override
+    public PacketType<RequestDescriptionsPacket> type() {
+        return TYPE;
+    }
+
+    private static class Type implements ServerboundPacketType<RequestDescriptionsPacket> {
+
+        @Override
+        public Class<RequestDescriptionsPacket> type() {
+            return RequestDescriptionsPacket.class;
+        }
+
+        @Override
+        public ResourceLocation id() {
+            return new ResourceLocation(Heracles.MOD_ID, "request_descriptions");
+        }
+
+        @Override
+        public void encode(RequestDescriptionsPacket message, FriendlyByteBuf buffer) {
+            buffer.writeCollection(message.quests, FriendlyByteBuf::writeUtf);
+        }
+
+        @Override
+        public RequestDescriptionsPacket decode(FriendlyByteBuf buffer) {
+            return new RequestDescriptionsPacket(buffer.readList(FriendlyByteBuf::readUtf));
+        }
+
+        @Override
+        public Consumer<Player> handle(RequestDescriptionsPacket message) {
+            return player -> {
+                if (player instanceof ServerPlayer serverPlayer) {
+                    QuestSyncer.sendDescriptions(serverPlayer, message.quests);
+                }
+            };
+        }
+    }
+}
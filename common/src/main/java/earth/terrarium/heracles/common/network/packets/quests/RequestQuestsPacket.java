@@ -0,0 +1,71 @@
+package earth.terrarium.heracles.common.network.packets.quests;
+
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.PacketType;
+import com.teamresourceful.resourcefullib.common.network.base.ServerboundPacketType;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.common.handlers.syncing.QuestSyncer;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Requests the synced data of quests the client needs but doesn't have cached.
+ */
+public record RequestQuestsPacket(int request, List<String> quests) implements Packet<RequestQuestsPacket> {
+
+    public static final ServerboundPacketType<RequestQuestsPacket> TYPE = new Type();
+    // Only guards the decoding, the server also caps the request at the number of quests.
+    private static final int MAX_QUESTS = 65536;
+
+    @Override
+    public PacketType<RequestQuestsPacket> type() {
+        return TYPE;
+    }
+
+    private static class Type implements ServerboundPacketType<RequestQuestsPacket> {
+
+        @Override
+        public Class<RequestQuestsPacket> type() {
+            return RequestQuestsPacket.class;
+        }
+
+        @Override
+        public ResourceLocation id() {
+            return new ResourceLocation(Heracles.MOD_ID, "request_quests");
+        }
+
+        @Override
+        public void encode(RequestQuestsPacket message, FriendlyByteBuf buffer) {
+            buffer.writeVarInt(message.request);
+            buffer.writeCollection(message.quests, FriendlyByteBuf::writeUtf);
+        }
+
+        @Override
+        public RequestQuestsPacket decode(FriendlyByteBuf buffer) {
+            int request = buffer.readVarInt();
+            List<String> quests = buffer.readCollection(size -> {
+                if (size > MAX_QUESTS) {
+                    throw new DecoderException("Too many quests requested: " + size);
+                }
+                return new ArrayList<>(size);
+            }, FriendlyByteBuf::readUtf);
+            return new RequestQuestsPacket(request, quests);
+        }
+
+        @Override
+        public Consumer<Player> handle(RequestQuestsPacket message) {
+            return player -> {
+                if (player instanceof ServerPlayer serverPlayer) {
+                    QuestSyncer.sendQuests(serverPlayer, message.request, message.quests);
+                }
+            };
+        }
+    }
+}
@@ -10,6 +10,7 @@ import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.api.quests.Quest;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
 import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
+import earth.terrarium.heracles.common.handlers.syncing.QuestSyncer;
 import earth.terrarium.heracles.common.network.NetworkHandler;
 import earth.terrarium.heracles.common.utils.ModUtils;
 import net.minecraft.resources.ResourceLocation;
@@ -57,11 +58,12 @@ public record ServerboundAddQuestPacket(
             return (player) -> {
                 if (player.hasPermissions(2)) {
                     QuestHandler.upload(message.id(), message.quest());
-                    NetworkHandler.CHANNEL.sendToAllPlayers(
+                    NetworkHandler.sendToAllPlayers(
                         new ClientboundAddQuestPacket(message.id(), message.quest()),
                         Objects.requireNonNull(player.getServer())
                     );
                     QuestProgressHandler.read(player.getServer()).updatePossibleQuests();
+                    QuestSyncer.syncDisplays(player.getServer());
                 }
             };
         }
@@ -48,7 +48,7 @@ public record ServerboundRemoveQuestPacket(String id) implements Packet<Serverbo
             return (player) -> {
                 if (player.hasPermissions(2)) {
                     QuestHandler.remove(message.id);
-                    NetworkHandler.CHANNEL.sendToAllPlayers(
+                    NetworkHandler.sendToAllPlayers(
                         new ClientboundRemoveQuestPacket(message.id()),
                         Objects.requireNonNull(player.getServer())
                     );
@@ -10,6 +10,7 @@ import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.api.quests.Quest;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
 import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
+import earth.terrarium.heracles.common.handlers.syncing.QuestSyncer;
 import earth.terrarium.heracles.common.network.NetworkHandler;
 import earth.terrarium.heracles.common.network.packets.quests.data.NetworkQuestData;
 import net.minecraft.resources.ResourceLocation;
@@ -69,9 +70,10 @@ public record ServerboundUpdateQuestPacket(
                         .getPlayers()
                         .stream()
                         .filter(p -> p != player || message.sendToSelf())
-                        .forEach(p -> NetworkHandler.CHANNEL.sendToPlayer(packet, p));
+                        .forEach(p -> NetworkHandler.sendToPlayer(packet, p));
 
                     QuestProgressHandler.read(player.getServer()).updatePossibleQuests();
+                    QuestSyncer.syncDisplays(player.getServer());
                 }
             };
         }
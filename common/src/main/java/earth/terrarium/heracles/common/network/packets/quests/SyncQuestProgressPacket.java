@@ -4,21 +4,29 @@ import com.teamresourceful.resourcefullib.common.network.Packet;
 import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketType;
 import com.teamresourceful.resourcefullib.common.network.base.PacketType;
 import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.client.handlers.ClientQuestSync;
 import earth.terrarium.heracles.client.handlers.ClientQuests;
 import earth.terrarium.heracles.client.screens.quest.BaseQuestScreen;
 import earth.terrarium.heracles.client.screens.quests.QuestsScreen;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
 import net.minecraft.client.Minecraft;
+import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 
-public record SyncQuestProgressPacket(Map<String, QuestProgress> quests) implements Packet<SyncQuestProgressPacket> {
+/**
+ * Syncs the full progress of quests, if full is set the progress replaces all the progress the client has.
+ */
+public record SyncQuestProgressPacket(Map<String, CompoundTag> quests, boolean full) implements Packet<SyncQuestProgressPacket> {
 
     public static final ClientboundPacketType<SyncQuestProgressPacket> TYPE = new Type();
 
+    public SyncQuestProgressPacket(Map<String, CompoundTag> quests) {
+        this(quests, false);
+    }
+
     @Override
     public PacketType<SyncQuestProgressPacket> type() {
         return TYPE;
@@ -38,35 +46,52 @@ public record SyncQuestProgressPacket(Map<String, QuestProgress> quests) impleme
 
         @Override
         public void encode(SyncQuestProgressPacket message, FriendlyByteBuf buffer) {
+            buffer.writeBoolean(message.full);
             buffer.writeVarInt(message.quests.size());
             for (var entry : message.quests.entrySet()) {
                 buffer.writeUtf(entry.getKey());
-                buffer.writeNbt(entry.getValue().save());
+                buffer.writeNbt(entry.getValue());
             }
         }
 
         @Override
         public SyncQuestProgressPacket decode(FriendlyByteBuf buffer) {
-            Map<String, QuestProgress> quests = new LinkedHashMap<>();
+            boolean full = buffer.readBoolean();
+            Map<String, CompoundTag> quests = new LinkedHashMap<>();
             int size = buffer.readVarInt();
             for (int i = 0; i < size; i++) {
-                String quest = buffer.readUtf();
-                ClientQuests.get(quest).ifPresent(entry -> {
-                    QuestProgress progress = new QuestProgress(entry.value(), buffer.readNbt());
-                    quests.put(quest, progress);
-                });
+                quests.put(buffer.readUtf(), buffer.readNbt());
             }
-            return new SyncQuestProgressPacket(quests);
+            return new SyncQuestProgressPacket(quests, full);
         }
 
         @Override
         public Runnable handle(SyncQuestProgressPacket message) {
             return () -> {
-                ClientQuests.mergeProgress(message.quests);
+                // Quests are only looked up here as the quests may be synced in a packet that was received just before this one.
+                Map<String, QuestProgress> quests = new LinkedHashMap<>();
+                Map<String, CompoundTag> unloaded = new HashMap<>();
+                message.quests.forEach((id, tag) -> ClientQuests.get(id).ifPresentOrElse(
+                    entry -> quests.put(id, new QuestProgress(entry.value(), tag)),
+                    () -> unloaded.put(id, tag)
+                ));
+                if (message.full) {
+                    ClientQuests.updateProgress(quests, unloaded);
+                } else {
+                    ClientQuests.mergeProgress(quests, unloaded);
+                }
+                // Quests that are being worked on are loaded so they can be shown without waiting.
+                List<String> inProgress = new ArrayList<>();
+                unloaded.forEach((id, tag) -> {
+                    if (!tag.getBoolean("complete")) {
+                        inProgress.add(id);
+                    }
+                });
+                ClientQuestSync.load(inProgress, () -> {});
                 if (Minecraft.getInstance().screen instanceof BaseQuestScreen screen) {
-                    screen.updateProgress(message.quests.getOrDefault(screen.getQuestId(), null));
+                    screen.updateProgress(quests.getOrDefault(screen.getQuestId(), null));
                 } else if (Minecraft.getInstance().screen instanceof QuestsScreen screen) {
-                    screen.updateProgress(message.quests);
+                    screen.updateProgress(quests);
                 }
             };
         }
@@ -0,0 +1,167 @@
+package earth.terrarium.heracles.common.network.packets.quests;
+
+import com.teamresourceful.resourcefullib.common.network.Packet;
+import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketType;
+import com.teamresourceful.resourcefullib.common.network.base.PacketType;
+import earth.terrarium.heracles.Heracles;
+import earth.terrarium.heracles.api.quests.Quest;
+import earth.terrarium.heracles.api.tasks.QuestTask;
+import earth.terrarium.heracles.client.handlers.ClientQuestSync;
+import earth.terrarium.heracles.client.handlers.ClientQuests;
+import earth.terrarium.heracles.client.screens.quest.BaseQuestScreen;
+import earth.terrarium.heracles.client.screens.quests.QuestsScreen;
+import earth.terrarium.heracles.common.handlers.progress.QuestProgress;
+import earth.terrarium.heracles.common.handlers.progress.TaskProgress;
+import earth.terrarium.heracles.common.utils.ModUtils;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import net.minecraft.client.Minecraft;
+import net.minecraft.nbt.*;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Syncs only the tasks that changed, the client applies them on top of the progress it already has.
+ * Quest and task ids are written once in a table and referenced by index.
+ */
+public record SyncTaskProgressPacket(List<QuestDelta> quests) implements Packet<SyncTaskProgressPacket> {
+
+    public static final ClientboundPacketType<SyncTaskProgressPacket> TYPE = new Type();
+
+    @Override
+    public PacketType<SyncTaskProgressPacket> type() {
+        return TYPE;
+    }
+
+    public record QuestDelta(String quest, boolean complete, List<TaskDelta> tasks) {}
+
+    public record TaskDelta(String task, boolean complete, Tag progress) {}
+
+    private static class Type implements ClientboundPacketType<SyncTaskProgressPacket> {
+
+        @Override
+        public Class<SyncTaskProgressPacket> type() {
+            return SyncTaskProgressPacket.class;
+        }
+
+        @Override
+        public ResourceLocation id() {
+            return new ResourceLocation(Heracles.MOD_ID, "sync_task_progress");
+        }
+
+        @Override
+        public void encode(SyncTaskProgressPacket message, FriendlyByteBuf buffer) {
+            Map<String, Integer> ids = new LinkedHashMap<>();
+            for (QuestDelta quest : message.quests) {
+                ids.putIfAbsent(quest.quest(), ids.size());
+                for (TaskDelta task : quest.tasks()) {
+                    ids.putIfAbsent(task.task(), ids.size());
+                }
+            }
+            buffer.writeCollection(ids.keySet(), FriendlyByteBuf::writeUtf);
+            buffer.writeVarInt(message.quests.size());
+            for (QuestDelta quest : message.quests) {
+                buffer.writeVarInt(ids.get(quest.quest()));
+                buffer.writeBoolean(quest.complete());
+                buffer.writeVarInt(quest.tasks().size());
+                for (TaskDelta task : quest.tasks()) {
+                    buffer.writeVarInt(ids.get(task.task()));
+                    buffer.writeBoolean(task.complete());
+                    writeTag(buffer, task.progress());
+                }
+            }
+        }
+
+        @Override
+        public SyncTaskProgressPacket decode(FriendlyByteBuf buffer) {
+            List<String> ids = buffer.readList(FriendlyByteBuf::readUtf);
+            int size = buffer.readVarInt();
+            List<QuestDelta> quests = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                String quest = ids.get(buffer.readVarInt());
+                boolean complete = buffer.readBoolean();
+                int taskSize = buffer.readVarInt();
+                List<TaskDelta> tasks = new ArrayList<>(taskSize);
+                for (int j = 0; j < taskSize; j++) {
+                    tasks.add(new TaskDelta(ids.get(buffer.readVarInt()), buffer.readBoolean(), readTag(buffer)));
+                }
+                quests.add(new QuestDelta(quest, complete, tasks));
+            }
+            return new SyncTaskProgressPacket(quests);
+        }
+
+        @Override
+        public Runnable handle(SyncTaskProgressPacket message) {
+            return () -> {
+                Map<String, QuestProgress> quests = new LinkedHashMap<>();
+                for (QuestDelta delta : message.quests) {
+                    ClientQuests.get(delta.quest()).ifPresentOrElse(
+                        entry -> quests.put(delta.quest(), apply(entry.value(), delta)),
+                        // The quest was just started, it is loaded first as the delta needs the quest to be applied.
+                        () -> ClientQuestSync.load(List.of(delta.quest()), () -> ClientQuests.get(delta.quest()).ifPresent(entry ->
+                            ClientQuests.mergeProgress(Map.of(delta.quest(), apply(entry.value(), delta)))
+                        ))
+                    );
+                }
+                ClientQuests.mergeProgress(quests);
+                if (Minecraft.getInstance().screen instanceof BaseQuestScreen screen) {
+                    screen.updateProgress(quests.getOrDefault(screen.getQuestId(), null));
+                } else if (Minecraft.getInstance().screen instanceof QuestsScreen screen) {
+                    screen.updateProgress(quests);
+                }
+            };
+        }
+
+        private static QuestProgress apply(Quest quest, QuestDelta delta) {
+            QuestProgress progress = ClientQuests.getProgress(delta.quest());
+            if (progress == null) {
+                progress = new QuestProgress();
+            }
+            for (TaskDelta task : delta.tasks()) {
+                QuestTask<?, ?, ?> questTask = quest.tasks().get(task.task());
+                if (questTask == null) continue;
+                TaskProgress<Tag> taskProgress = progress.getTask(ModUtils.cast(questTask));
+                taskProgress.setProgress(task.progress());
+                taskProgress.setComplete(task.complete());
+            }
+            progress.setComplete(delta.complete());
+            return progress;
+        }
+
+        private static void writeTag(FriendlyByteBuf buffer, Tag tag) {
+            buffer.writeByte(tag.getId());
+            if (tag instanceof IntTag || tag instanceof ShortTag || tag instanceof ByteTag) {
+                buffer.writeVarInt(((NumericTag) tag).getAsInt());
+            } else if (tag instanceof LongTag longTag) {
+                buffer.writeVarLong(longTag.getAsLong());
+            } else {
+                try {
+                    tag.write(new ByteBufOutputStream(buffer));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private static Tag readTag(FriendlyByteBuf buffer) {
+            byte id = buffer.readByte();
+            return switch (id) {
+                case Tag.TAG_INT -> IntTag.valueOf(buffer.readVarInt());
+                case Tag.TAG_SHORT -> ShortTag.valueOf((short) buffer.readVarInt());
+                case Tag.TAG_BYTE -> ByteTag.valueOf((byte) buffer.readVarInt());
+                case Tag.TAG_LONG -> LongTag.valueOf(buffer.readVarLong());
+                default -> {
+                    try {
+                        yield TagTypes.getType(id).load(new ByteBufInputStream(buffer), 0, NbtAccounter.UNLIMITED);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -56,6 +56,29 @@ public record NetworkQuestData(
         return new Builder();
     }
 
+    /**
+     * Creates data that replaces everything in a quest with the given quest.
+     */
+    public static NetworkQuestData of(Quest quest) {
+        return builder()
+            .icon(quest.display().icon())
+            .background(quest.display().iconBackground())
+            .title(quest.display().title())
+            .subtitle(quest.display().subtitle())
+            .description(quest.display().description())
+            .groups(quest.display().groups())
+            .individualProgress(quest.settings().individualProgress())
+            .hiddenUntil(quest.settings().hiddenUntil())
+            .unlockNotification(quest.settings().unlockNotification())
+            .showDependencyArrow(quest.settings().showDependencyArrow())
+            .repeatable(quest.settings().repeatable())
+            .autoClaimRewards(quest.settings().autoClaimRewards())
+            .dependencies(quest.dependencies())
+            .tasks(quest.tasks())
+            .rewards(quest.rewards())
+            .build();
+    }
+
     public static class Builder {
 
         private QuestIcon<?> icon;
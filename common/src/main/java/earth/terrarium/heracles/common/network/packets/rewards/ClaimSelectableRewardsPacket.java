@@ -71,6 +71,7 @@ public record ClaimSelectableRewardsPacket(
                     QuestProgress questProgress = progress.getProgress(message.quest);
                     if (questProgress.canClaim(message.reward)) {
                         questProgress.claimReward(message.reward);
+                        progress.markDirty(message.quest);
                         QuestReward<?> reward = quest.rewards().get(message.reward);
                         if (reward instanceof SelectableReward selectableReward) {
                             if (message.rewards().size() <= selectableReward.amount()) {
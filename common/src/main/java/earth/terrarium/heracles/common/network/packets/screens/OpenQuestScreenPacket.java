@@ -5,10 +5,16 @@ import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketT
 import com.teamresourceful.resourcefullib.common.network.base.PacketType;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.client.ModScreens;
+import earth.terrarium.heracles.client.handlers.ClientQuestSync;
+import earth.terrarium.heracles.client.handlers.ClientQuests;
 import earth.terrarium.heracles.common.menus.quest.QuestContent;
+import earth.terrarium.heracles.common.network.NetworkHandler;
+import earth.terrarium.heracles.common.network.packets.quests.OpenQuestPacket;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 
+import java.util.List;
+
 public record OpenQuestScreenPacket(boolean editing, QuestContent content) implements Packet<OpenQuestScreenPacket> {
 
     public static final ClientboundPacketType<OpenQuestScreenPacket> TYPE = new Type();
@@ -46,10 +52,17 @@ public record OpenQuestScreenPacket(boolean editing, QuestContent content) imple
         @Override
         public Runnable handle(OpenQuestScreenPacket message) {
             return () -> {
-                if (message.editing) {
-                    ModScreens.openEditQuestScreen(message.content);
+                String id = message.content.id();
+                if (ClientQuests.get(id).isEmpty() && ClientQuestSync.isKnown(id)) {
+                    // The progress is read with the quest, so the screen is requested again once the quest is loaded.
+                    ClientQuestSync.load(List.of(id), () ->
+                        NetworkHandler.CHANNEL.sendToServer(new OpenQuestPacket(message.content.fromGroup(), id, message.editing))
+                    );
+                } else if (message.editing) {
+                    ClientQuestSync.loadAll(() -> ModScreens.openEditQuestScreen(message.content));
                 } else {
-                    ModScreens.openQuestScreen(message.content);
+                    // The dependencies are shown on the screen and can be in groups that aren't loaded yet.
+                    ClientQuestSync.loadWithDependencies(id, () -> ModScreens.openQuestScreen(message.content));
                 }
             };
         }
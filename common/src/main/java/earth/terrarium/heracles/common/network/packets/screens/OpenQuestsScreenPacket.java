@@ -5,6 +5,7 @@ import com.teamresourceful.resourcefullib.common.network.base.ClientboundPacketT
 import com.teamresourceful.resourcefullib.common.network.base.PacketType;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.client.ModScreens;
+import earth.terrarium.heracles.client.handlers.ClientQuestSync;
 import earth.terrarium.heracles.client.handlers.ClientQuests;
 import earth.terrarium.heracles.common.menus.quests.QuestsContent;
 import net.minecraft.network.FriendlyByteBuf;
@@ -48,10 +49,11 @@ public record OpenQuestsScreenPacket(boolean editing, QuestsContent content) imp
         public Runnable handle(OpenQuestsScreenPacket message) {
             return () -> {
                 ClientQuests.syncGroup(message.content);
+                // The editor can link and move quests across groups, so it needs all of them.
                 if (message.editing) {
-                    ModScreens.openEditQuestsScreen(message.content);
+                    ClientQuestSync.loadAll(() -> ModScreens.openEditQuestsScreen(message.content));
                 } else {
-                    ModScreens.openQuestsScreen(message.content);
+                    ClientQuestSync.loadGroup(message.content.group(), () -> ModScreens.openQuestsScreen(message.content));
                 }
             };
         }
@@ -68,7 +68,7 @@ public class ModUtils {
     }
 
     public static void openQuest(ServerPlayer player, String group, String id) {
-        NetworkHandler.CHANNEL.sendToPlayer(new OpenQuestScreenPacket(
+        NetworkHandler.sendToPlayer(new OpenQuestScreenPacket(
             false,
             new QuestContent(
                 id,
@@ -80,7 +80,7 @@ public class ModUtils {
     }
 
     public static void openEditQuest(ServerPlayer player, String group, String id) {
-        NetworkHandler.CHANNEL.sendToPlayer(new OpenQuestScreenPacket(
+        NetworkHandler.sendToPlayer(new OpenQuestScreenPacket(
             true,
             new QuestContent(
                 id,
@@ -96,7 +96,7 @@ public class ModUtils {
             player.sendSystemMessage(Component.translatable("gui.heracles.error.group.not_found", group));
             return;
         }
-        NetworkHandler.CHANNEL.sendToPlayer(new OpenQuestsScreenPacket(
+        NetworkHandler.sendToPlayer(new OpenQuestsScreenPacket(
             false,
             new QuestsContent(group, getQuests(player), player.hasPermissions(2))
         ), player);
@@ -108,7 +108,7 @@ public class ModUtils {
             player.closeContainer();
             return;
         }
-        NetworkHandler.CHANNEL.sendToPlayer(new OpenQuestsScreenPacket(
+        NetworkHandler.sendToPlayer(new OpenQuestsScreenPacket(
             true,
             new QuestsContent(group, getQuests(player), player.hasPermissions(2))
         ), player);
@@ -1,7 +1,8 @@
 package earth.terrarium.heracles.common.utils;
 
 public record PlatformSettings(
-    boolean prefixedLogger
+    boolean prefixedLogger,
+    String version
 ) {
 
     public void apply(PlatformLogger logger) {
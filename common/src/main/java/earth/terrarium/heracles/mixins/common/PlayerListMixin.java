@@ -2,8 +2,6 @@ package earth.terrarium.heracles.mixins.common;
 
 import earth.terrarium.heracles.common.handlers.syncing.QuestSyncer;
 import earth.terrarium.heracles.common.network.NetworkHandler;
-import earth.terrarium.heracles.common.network.packets.ClientboundAdvancementDisplayPacket;
-import earth.terrarium.heracles.common.network.packets.ClientboundLootTablesDisplayPacket;
 import net.minecraft.network.Connection;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
@@ -34,12 +32,12 @@ public class PlayerListMixin {
     )
     private void heracles$afterSyncData(Connection netManager, ServerPlayer player, CallbackInfo ci) {
         QuestSyncer.sync(player);
-        NetworkHandler.CHANNEL.sendToPlayer(
-            new ClientboundAdvancementDisplayPacket(this.server),
+        NetworkHandler.sendToPlayer(
+            QuestSyncer.getAdvancementPacket(this.server),
             player
         );
-        NetworkHandler.CHANNEL.sendToPlayer(
-            new ClientboundLootTablesDisplayPacket(this.server),
+        NetworkHandler.sendToPlayer(
+            QuestSyncer.getLootTablesPacket(this.server),
             player
         );
     }
@@ -50,12 +48,12 @@ public class PlayerListMixin {
     )
     private void heracles$afterSyncDataToAll(CallbackInfo ci) {
         QuestSyncer.syncToAll(this.server, this.players);
-        NetworkHandler.CHANNEL.sendToPlayers(
-            new ClientboundAdvancementDisplayPacket(this.server),
+        NetworkHandler.sendToPlayers(
+            QuestSyncer.getAdvancementPacket(this.server),
             this.players
         );
-        NetworkHandler.CHANNEL.sendToPlayers(
-            new ClientboundLootTablesDisplayPacket(this.server),
+        NetworkHandler.sendToPlayers(
+            QuestSyncer.getLootTablesPacket(this.server),
             this.players
         );
     }
@@ -2,6 +2,7 @@ package earth.terrarium.heracles.mixins.common;
 
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.common.handlers.quests.QuestHandler;
+import earth.terrarium.heracles.common.handlers.quests.QuestLoader;
 import net.minecraft.commands.Commands;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.server.ReloadableServerResources;
@@ -12,21 +13,28 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 @Mixin(ReloadableServerResources.class)
 public class ReloadableServerResourcesMixin {
 
+    /**
+     * Quests are loaded alongside the rest of the reload on the background executor
+     * and only swapped in on the game executor once they are all loaded.
+     */
     @Inject(
         method = "loadResources",
-        at = @At(
-            value = "INVOKE",
-            target = "Lnet/minecraft/server/ReloadableServerResources;<init>(Lnet/minecraft/core/RegistryAccess$Frozen;Lnet/minecraft/world/flag/FeatureFlagSet;Lnet/minecraft/commands/Commands$CommandSelection;I)V",
-            shift = At.Shift.AFTER
-        )
+        at = @At("RETURN"),
+        cancellable = true
     )
-    private static void heracles$loadResources(ResourceManager resourceManager, RegistryAccess.Frozen frozen, FeatureFlagSet featureFlagSet, Commands.CommandSelection commandSelection, int i, Executor executor, Executor executor2, CallbackInfoReturnable<CompletableFuture<ReloadableServerResources>> cir) {
-        QuestHandler.load(frozen, Heracles.getConfigPath());
+    private static void heracles$loadResources(ResourceManager resourceManager, RegistryAccess.Frozen frozen, FeatureFlagSet featureFlagSet, Commands.CommandSelection commandSelection, int i, Executor backgroundExecutor, Executor gameExecutor, CallbackInfoReturnable<CompletableFuture<ReloadableServerResources>> cir) {
+        Path path = Heracles.getConfigPath();
+        CompletableFuture<QuestLoader.Result> quests = QuestHandler.loadAsync(frozen, path, backgroundExecutor);
+        cir.setReturnValue(cir.getReturnValue().thenCombineAsync(quests, (resources, result) -> {
+            QuestHandler.apply(path, result);
+            return resources;
+        }, gameExecutor));
     }
 }
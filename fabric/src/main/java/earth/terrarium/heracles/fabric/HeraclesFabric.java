@@ -6,11 +6,18 @@ import earth.terrarium.heracles.api.tasks.defaults.EntityInteractTask;
 import earth.terrarium.heracles.api.tasks.defaults.ItemInteractTask;
 import earth.terrarium.heracles.api.tasks.defaults.KillEntityQuestTask;
 import earth.terrarium.heracles.common.commands.ModCommands;
+import earth.terrarium.heracles.common.handlers.metrics.PerformanceMetrics;
+import earth.terrarium.heracles.common.handlers.progress.BarrierCache;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
+import earth.terrarium.heracles.common.handlers.quests.QuestFileWatcher;
+import earth.terrarium.heracles.common.handlers.quests.QuestWriter;
+import earth.terrarium.heracles.common.handlers.syncing.ProgressOutbox;
+import earth.terrarium.heracles.common.handlers.syncing.QuestSyncer;
 import earth.terrarium.heracles.common.utils.PlatformSettings;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.entity.event.v1.ServerEntityCombatEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.event.player.UseBlockCallback;
 import net.fabricmc.fabric.api.event.player.UseEntityCallback;
 import net.fabricmc.fabric.api.event.player.UseItemCallback;
@@ -24,7 +31,10 @@ import net.minecraft.world.item.ItemStack;
 public class HeraclesFabric {
     public static void init() {
         Heracles.setConfigPath(FabricLoader.getInstance().getConfigDir());
-        Heracles.init(new PlatformSettings(true));
+        Heracles.init(new PlatformSettings(true, FabricLoader.getInstance()
+            .getModContainer(Heracles.MOD_ID)
+            .map(mod -> mod.getMetadata().getVersion().getFriendlyString())
+            .orElse("")));
 
         CommandRegistrationCallback.EVENT.register((dispatcher, context, env) -> ModCommands.init(dispatcher));
 
@@ -67,6 +77,19 @@ public class HeraclesFabric {
         ServerLifecycleEvents.SERVER_STARTED.register(server -> {
             Heracles.setRegistryAccess(server::registryAccess);
             QuestProgressHandler.setupChanger();
+            QuestFileWatcher.start(server);
         });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            QuestProgressHandler.closeStorage();
+            QuestWriter.flush();
+            QuestFileWatcher.stop();
+            BarrierCache.invalidate();
+            QuestSyncer.invalidate();
+        });
+
+        ServerTickEvents.END_SERVER_TICK.register(ProgressOutbox::flush);
+        ServerTickEvents.END_SERVER_TICK.register(QuestSyncer::tick);
+        ServerTickEvents.END_SERVER_TICK.register(server -> PerformanceMetrics.tick());
     }
 }
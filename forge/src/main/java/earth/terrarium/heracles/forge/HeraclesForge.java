@@ -3,8 +3,14 @@ package earth.terrarium.heracles.forge;
 import earth.terrarium.heracles.Heracles;
 import earth.terrarium.heracles.api.tasks.defaults.*;
 import earth.terrarium.heracles.common.commands.ModCommands;
+import earth.terrarium.heracles.common.handlers.metrics.PerformanceMetrics;
+import earth.terrarium.heracles.common.handlers.progress.BarrierCache;
 import earth.terrarium.heracles.common.handlers.progress.QuestProgressHandler;
 import earth.terrarium.heracles.common.handlers.progress.QuestsProgress;
+import earth.terrarium.heracles.common.handlers.quests.QuestFileWatcher;
+import earth.terrarium.heracles.common.handlers.quests.QuestWriter;
+import earth.terrarium.heracles.common.handlers.syncing.ProgressOutbox;
+import earth.terrarium.heracles.common.handlers.syncing.QuestSyncer;
 import earth.terrarium.heracles.common.utils.PlatformSettings;
 import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.core.BlockSourceImpl;
@@ -18,6 +24,8 @@ import net.minecraftforge.event.entity.living.LivingEntityUseItemEvent;
 import net.minecraftforge.event.entity.player.AdvancementEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.server.ServerAboutToStartEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.loading.FMLEnvironment;
 import net.minecraftforge.fml.loading.FMLPaths;
@@ -29,11 +37,13 @@ public class HeraclesForge {
 
     public HeraclesForge() {
         Heracles.setConfigPath(FMLPaths.CONFIGDIR.get());
-        Heracles.init(new PlatformSettings(false));
+        Heracles.init(new PlatformSettings(false, ModLoadingContext.get().getActiveContainer().getModInfo().getVersion().toString()));
 
         MinecraftForge.EVENT_BUS.addListener(HeraclesForge::onServerStarting);
+        MinecraftForge.EVENT_BUS.addListener(HeraclesForge::onServerStopped);
         MinecraftForge.EVENT_BUS.addListener(HeraclesForge::onAdvancementEarn);
         MinecraftForge.EVENT_BUS.addListener(HeraclesForge::onTick);
+        MinecraftForge.EVENT_BUS.addListener(HeraclesForge::onServerTick);
         MinecraftForge.EVENT_BUS.addListener(HeraclesForge::onItemUse);
         MinecraftForge.EVENT_BUS.addListener(HeraclesForge::onItemInteract);
         MinecraftForge.EVENT_BUS.addListener(HeraclesForge::onBlockInteract);
@@ -56,6 +66,15 @@ public class HeraclesForge {
     private static void onServerStarting(ServerAboutToStartEvent event) {
         Heracles.setRegistryAccess(event.getServer()::registryAccess);
         QuestProgressHandler.setupChanger();
+        QuestFileWatcher.start(event.getServer());
+    }
+
+    private static void onServerStopped(ServerStoppedEvent event) {
+        QuestProgressHandler.closeStorage();
+        QuestWriter.flush();
+        QuestFileWatcher.stop();
+        BarrierCache.invalidate();
+        QuestSyncer.invalidate();
     }
 
     private static void onAdvancementEarn(AdvancementEvent.AdvancementEarnEvent event) {
@@ -65,6 +84,13 @@ public class HeraclesForge {
             .testAndProgressTaskType(player, event.getAdvancement(), AdvancementTask.TYPE);
     }
 
+    private static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        ProgressOutbox.flush(event.getServer());
+        QuestSyncer.tick(event.getServer());
+        PerformanceMetrics.tick();
+    }
+
     private static void onTick(TickEvent.PlayerTickEvent event) {
         if (event.player.tickCount % 20 != 0) return;
         if (!(event.player instanceof ServerPlayer player)) return;